@@ -2,8 +2,12 @@ package com.rajeswarandhandapani.dblocking;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// R2DBC is wired manually in ReactiveDatabaseConfig so it does not replace the JPA DataSource
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
 public class DbLockingStrategiesApplication {
     public static void main(String[] args) {
         SpringApplication.run(DbLockingStrategiesApplication.class, args);
@@ -0,0 +1,38 @@
+package com.rajeswarandhandapani.dblocking.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Derives the JDBC pool size from the request-thread budget when
+ * locking.request-concurrency is set. Each request thread holds at most one
+ * connection for the whole locked section, so one connection per request thread
+ * plus a few for background work (the reservation sweeper) means a lock waiter
+ * never queues on the pool. The same property caps the Tomcat threads, so the
+ * two cannot drift apart.
+ */
+@Configuration
+@ConditionalOnProperty("locking.request-concurrency")
+public class ConnectionPoolSizingConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionPoolSizer(Environment environment) {
+        int requestConcurrency = environment.getRequiredProperty("locking.request-concurrency", Integer.class);
+        int backgroundConnections = environment.getProperty("locking.background-connections", Integer.class, 2);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Runs after the spring.datasource.hikari binding, before the pool starts
+                if (bean instanceof HikariDataSource dataSource) {
+                    dataSource.setMaximumPoolSize(requestConcurrency + backgroundConnections);
+                    dataSource.setMinimumIdle(requestConcurrency);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.rajeswarandhandapani.dblocking.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * R2DBC setup for the non-blocking API. The connection pool and its transaction
+ * manager are deliberately not exposed as beans: Spring Boot backs off its JDBC
+ * DataSource (and therefore JPA) as soon as any ConnectionFactory bean exists, and
+ * a second TransactionManager bean would make plain @Transactional ambiguous.
+ */
+@Configuration
+public class ReactiveDatabaseConfig implements DisposableBean {
+
+    @Value("${reactive.r2dbc.url}")
+    private String url;
+
+    @Value("${reactive.r2dbc.username}")
+    private String username;
+
+    @Value("${reactive.r2dbc.password:}")
+    private String password;
+
+    @Value("${reactive.r2dbc.max-pool-size:10}")
+    private int maxPoolSize;
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient reactiveDatabaseClient() {
+        return DatabaseClient.create(connectionPool());
+    }
+
+    @Bean
+    public TransactionalOperator reactiveTransactionalOperator() {
+        R2dbcTransactionManager transactionManager = new R2dbcTransactionManager(connectionPool()) {
+            @Override
+            protected io.r2dbc.spi.TransactionDefinition createTransactionDefinition(TransactionDefinition definition) {
+                return new WithoutReadOnly(super.createTransactionDefinition(definition));
+            }
+        };
+        transactionManager.afterPropertiesSet();
+        return TransactionalOperator.create(transactionManager);
+    }
+
+    private synchronized ConnectionPool connectionPool() {
+        if (connectionPool == null) {
+            ConnectionFactoryOptions options = ConnectionFactoryOptions.parse(url).mutate()
+                    .option(ConnectionFactoryOptions.USER, username)
+                    .option(ConnectionFactoryOptions.PASSWORD, password)
+                    .build();
+            // r2dbc-h2 executes each statement synchronously on the thread that delivered the
+            // connection, so a statement waiting on a row lock blocks that thread. By default
+            // the pool delivers on the caller (a request thread) or, for new connections, on
+            // Schedulers.single(), and lazy warmup hands out connections one at a time, so one
+            // lock wait stalls every other borrower. Deliver on boundedElastic and warm up
+            // eagerly so each waiter blocks only its own worker.
+            connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                    .maxSize(maxPoolSize)
+                    .allocatorSubscribeOn(Schedulers.boundedElastic())
+                    .customizer(pool -> pool.acquisitionScheduler(Schedulers.boundedElastic()))
+                    .build());
+            connectionPool.warmup().block();
+        }
+        return connectionPool;
+    }
+
+    /**
+     * Spring always passes READ_ONLY, even when false, and r2dbc-h2 logs a warning for it
+     * on every transaction begin because H2 only supports read-only per connection URL.
+     * None of the reactive transactions are read-only, so drop the attribute.
+     */
+    private record WithoutReadOnly(io.r2dbc.spi.TransactionDefinition delegate) implements io.r2dbc.spi.TransactionDefinition {
+
+        @Override
+        public <T> T getAttribute(Option<T> option) {
+            return io.r2dbc.spi.TransactionDefinition.READ_ONLY.equals(option) ? null : delegate.getAttribute(option);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
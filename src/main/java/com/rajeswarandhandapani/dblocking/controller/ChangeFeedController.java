@@ -0,0 +1,46 @@
+package com.rajeswarandhandapani.dblocking.controller;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    /**
+     * Current position of the change feed. Read this before fetching the full lists,
+     * then stream from it to receive every change made after the snapshot.
+     */
+    @GetMapping("/cursor")
+    public Mono<Map<String, Long>> getCursor() {
+        return changeFeedService.getLatestCursor()
+                .map(cursor -> Map.of("cursor", cursor));
+    }
+
+    /**
+     * Stream ticket and inventory changes as server-sent events, starting after the
+     * given cursor. Reconnecting clients resume from the Last-Event-ID header.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ChangeEvent>> streamChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        long cursor = lastEventId != null ? lastEventId : (after != null ? after : 0L);
+        return changeFeedService.streamAfter(cursor)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(String.valueOf(event.getId()))
+                        .event(event.getEventType().name())
+                        .build());
+    }
+}
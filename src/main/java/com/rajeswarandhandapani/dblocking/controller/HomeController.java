@@ -19,19 +19,32 @@ public class HomeController {
         endpoints.put("GET /api/tickets", "List all tickets");
         endpoints.put("POST /api/tickets", "Create a new ticket");
         endpoints.put("GET /api/tickets/{id}", "Get ticket by ID");
-        endpoints.put("POST /api/tickets/{id}/book", "Book a ticket (Pessimistic Locking Demo)");
+        endpoints.put("POST /api/tickets/{id}/book", "Book a ticket (Adaptive Locking Demo, starts pessimistic)");
         endpoints.put("POST /api/tickets/{id}/cancel", "Cancel ticket booking");
+        endpoints.put("POST /api/tickets/{id}/reserve?holderId=X", "Reserve a ticket with a time-limited lease");
+        endpoints.put("POST /api/tickets/{id}/confirm?holderId=X", "Confirm a reservation into a booking");
         endpoints.put("GET /api/inventory", "List all inventory items");
         endpoints.put("POST /api/inventory", "Create a new inventory item");
         endpoints.put("GET /api/inventory/{id}", "Get inventory item by ID");
         endpoints.put("PUT /api/inventory/{id}/update-quantity?newQuantity=X", "Update quantity (Optimistic Locking Demo)");
-        endpoints.put("POST /api/inventory/{id}/reduce?amount=X", "Reduce quantity (Optimistic Locking Demo)");
+        endpoints.put("POST /api/inventory/{id}/reduce?amount=X", "Reduce quantity (Adaptive Locking Demo, starts optimistic)");
+        endpoints.put("GET /api/reactive/tickets", "List all tickets (non-blocking)");
+        endpoints.put("POST /api/reactive/tickets/{id}/book", "Book a ticket with an atomic conditional update (non-blocking)");
+        endpoints.put("GET /api/reactive/tickets/{id}", "Get ticket by ID (non-blocking)");
+        endpoints.put("GET /api/reactive/inventory", "List all inventory items (non-blocking)");
+        endpoints.put("GET /api/reactive/inventory/{id}", "Get inventory item by ID (non-blocking)");
+        endpoints.put("POST /api/reactive/inventory/{id}/reduce?amount=X", "Reduce quantity (Optimistic Locking, non-blocking)");
+        endpoints.put("GET /api/changes/cursor", "Current change feed cursor");
+        endpoints.put("GET /api/changes/stream?after=X", "Stream ticket and inventory changes (Server-Sent Events)");
+        endpoints.put("GET /actuator/metrics/locking.adaptive.keys", "Keys per locking strategy chosen by adaptive selection");
         
         response.put("endpoints", endpoints);
         
         Map<String, String> lockingInfo = new HashMap<>();
-        lockingInfo.put("Pessimistic Locking", "Used in ticket booking - prevents concurrent access by acquiring locks");
-        lockingInfo.put("Optimistic Locking", "Used in inventory management - detects conflicts using version numbers");
+        lockingInfo.put("Pessimistic Locking", "Starting strategy for ticket booking - prevents concurrent access by acquiring locks");
+        lockingInfo.put("Optimistic Locking", "Used in inventory quantity updates and as the starting strategy for reductions - detects conflicts using version numbers");
+        lockingInfo.put("Adaptive Selection", "Ticket booking and inventory reduction switch per key between optimistic, pessimistic and atomic updates based on observed contention");
+        lockingInfo.put("Lease Reservation", "Used in ticket checkout - holds a seat with a TTL instead of a row lock");
         
         response.put("lockingStrategies", lockingInfo);
         
@@ -0,0 +1,38 @@
+package com.rajeswarandhandapani.dblocking.controller;
+
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import com.rajeswarandhandapani.dblocking.service.ReactiveInventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/reactive/inventory")
+public class ReactiveInventoryController {
+
+    @Autowired
+    private ReactiveInventoryService reactiveInventoryService;
+
+    @GetMapping
+    public Flux<InventoryItem> getAllItems() {
+        return reactiveInventoryService.getAllItems();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<InventoryItem>> getItem(@PathVariable Long id) {
+        return reactiveInventoryService.getItemById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Reduce inventory quantity using optimistic locking, without blocking a request thread
+     */
+    @PostMapping("/{id}/reduce")
+    public Mono<ResponseEntity<InventoryItem>> reduceQuantity(@PathVariable Long id, @RequestParam int amount) {
+        return reactiveInventoryService.reduceQuantity(id, amount)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,38 @@
+package com.rajeswarandhandapani.dblocking.controller;
+
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import com.rajeswarandhandapani.dblocking.service.ReactiveTicketService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/reactive/tickets")
+public class ReactiveTicketController {
+
+    @Autowired
+    private ReactiveTicketService reactiveTicketService;
+
+    @GetMapping
+    public Flux<Ticket> getAllTickets() {
+        return reactiveTicketService.getAllTickets();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Ticket>> getTicket(@PathVariable Long id) {
+        return reactiveTicketService.getTicketById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Book a ticket with an atomic conditional update, without blocking a request thread
+     */
+    @PostMapping("/{id}/book")
+    public Mono<ResponseEntity<Ticket>> bookTicket(@PathVariable Long id) {
+        return reactiveTicketService.bookTicket(id)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -51,4 +51,22 @@ public class TicketController {
         Ticket cancelledTicket = ticketService.cancelBooking(id);
         return ResponseEntity.ok(cancelledTicket);
     }
+
+    /**
+     * Reserve a ticket for a holder with a time-limited lease (no row lock held)
+     */
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<Ticket> reserveTicket(@PathVariable Long id, @RequestParam String holderId) {
+        Ticket reservedTicket = ticketService.reserveTicket(id, holderId);
+        return ResponseEntity.ok(reservedTicket);
+    }
+
+    /**
+     * Confirm a reservation, converting the lease into a booking
+     */
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<Ticket> confirmReservation(@PathVariable Long id, @RequestParam String holderId) {
+        Ticket bookedTicket = ticketService.confirmReservation(id, holderId);
+        return ResponseEntity.ok(bookedTicket);
+    }
 }
@@ -0,0 +1,77 @@
+package com.rajeswarandhandapani.dblocking.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Compact outbox record of a state change, written in the same transaction as the
+ * change itself. The id comes from {@link ChangeEventSequence} and doubles as the
+ * cursor for the change feed.
+ */
+@Entity
+public class ChangeEvent {
+
+    public enum AggregateType { TICKET, INVENTORY_ITEM }
+
+    public enum EventType { BOOKED, CANCELLED, RESERVED, RELEASED, QUANTITY_UPDATED, QUANTITY_REDUCED }
+
+    @Id
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private AggregateType aggregateType;
+
+    private Long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    private EventType eventType;
+
+    // Inventory items only
+    private Integer quantity;
+
+    // Tickets only
+    private Boolean booked;
+
+    private Instant createdAt;
+
+    public static ChangeEvent forTicket(Long ticketId, EventType eventType, boolean booked) {
+        ChangeEvent event = new ChangeEvent();
+        event.setAggregateType(AggregateType.TICKET);
+        event.setAggregateId(ticketId);
+        event.setEventType(eventType);
+        event.setBooked(booked);
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+    public static ChangeEvent forInventoryItem(Long itemId, EventType eventType, int quantity) {
+        ChangeEvent event = new ChangeEvent();
+        event.setAggregateType(AggregateType.INVENTORY_ITEM);
+        event.setAggregateId(itemId);
+        event.setEventType(eventType);
+        event.setQuantity(quantity);
+        event.setCreatedAt(Instant.now());
+        return event;
+    }
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public AggregateType getAggregateType() { return aggregateType; }
+    public void setAggregateType(AggregateType aggregateType) { this.aggregateType = aggregateType; }
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+    public EventType getEventType() { return eventType; }
+    public void setEventType(EventType eventType) { this.eventType = eventType; }
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+    public Boolean getBooked() { return booked; }
+    public void setBooked(Boolean booked) { this.booked = booked; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,25 @@
+package com.rajeswarandhandapani.dblocking.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Single-row counter that hands out change_event ids. Writers bump it in the same
+ * transaction as their events and hold its row lock until commit, so events commit
+ * in id order and a feed reader's cursor can never move past an uncommitted id.
+ */
+@Entity
+public class ChangeEventSequence {
+
+    public static final long ROW_ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long lastId;
+
+    // Getters and setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public long getLastId() { return lastId; }
+    public void setLastId(long lastId) { this.lastId = lastId; }
+}
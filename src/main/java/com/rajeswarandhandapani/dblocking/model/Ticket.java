@@ -2,7 +2,10 @@ package com.rajeswarandhandapani.dblocking.model;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 @Entity
+@Table(indexes = @Index(name = "idx_ticket_reserved_until", columnList = "reservedUntil"))
 public class Ticket {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -12,6 +15,14 @@ public class Ticket {
 
     private boolean booked;
 
+    @Version
+    private int version;
+
+    // Soft reservation (lease): held by reservedBy until reservedUntil, no row lock involved
+    private String reservedBy;
+
+    private Instant reservedUntil;
+
     // Getters and setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -22,6 +33,19 @@ public class Ticket {
     public boolean isBooked() { return booked; }
     public void setBooked(boolean booked) { this.booked = booked; }
 
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+
+    public String getReservedBy() { return reservedBy; }
+    public void setReservedBy(String reservedBy) { this.reservedBy = reservedBy; }
+
+    public Instant getReservedUntil() { return reservedUntil; }
+    public void setReservedUntil(Instant reservedUntil) { this.reservedUntil = reservedUntil; }
+
+    public boolean isReservedAt(Instant instant) {
+        return reservedUntil != null && !reservedUntil.isBefore(instant);
+    }
+
 
     @Override
     public String toString() {
@@ -29,6 +53,9 @@ public class Ticket {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", booked=" + booked +
+                ", version=" + version +
+                ", reservedBy='" + reservedBy + '\'' +
+                ", reservedUntil=" + reservedUntil +
                 '}';
     }
 }
@@ -2,8 +2,27 @@ package com.rajeswarandhandapani.dblocking.repository;
 
 import com.rajeswarandhandapani.dblocking.model.InventoryItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+
+import java.util.Optional;
 
 @Repository
 public interface InventoryItemRepository extends JpaRepository<InventoryItem, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM InventoryItem i WHERE i.id = :id")
+    Optional<InventoryItem> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Reduce the quantity in a single conditional UPDATE that never goes below zero.
+     * Returns the number of rows updated (0 or 1).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InventoryItem i SET i.quantity = i.quantity - :amount, i.version = i.version + 1 " +
+           "WHERE i.id = :id AND i.quantity >= :amount")
+    int reduceQuantityIfAvailable(@Param("id") Long id, @Param("amount") int amount);
 }
@@ -0,0 +1,80 @@
+package com.rajeswarandhandapani.dblocking.repository;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.model.ChangeEventSequence;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking access to the change_event outbox table.
+ */
+@Repository
+public class ReactiveChangeEventRepository {
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    public Flux<ChangeEvent> findAfter(long cursor, int limit) {
+        return reactiveDatabaseClient.sql("SELECT id, aggregate_type, aggregate_id, event_type, quantity, booked, created_at " +
+                        "FROM change_event WHERE id > :cursor ORDER BY id LIMIT :limit")
+                .bind("cursor", cursor)
+                .bind("limit", limit)
+                .map(ReactiveChangeEventRepository::toEvent)
+                .all();
+    }
+
+    public Mono<Long> findLatestId() {
+        return reactiveDatabaseClient.sql("SELECT COALESCE(MAX(id), 0) AS latest FROM change_event")
+                .map(row -> row.get("latest", Long.class))
+                .one();
+    }
+
+    /**
+     * Appends an event with the next id from change_event_sequence. Must run inside a
+     * transaction: the counter row stays locked until commit, so events commit in id order.
+     */
+    public Mono<Void> append(ChangeEvent event) {
+        return reactiveDatabaseClient.sql("UPDATE change_event_sequence SET last_id = last_id + 1 WHERE id = :id")
+                .bind("id", ChangeEventSequence.ROW_ID)
+                .fetch()
+                .rowsUpdated()
+                .then(reactiveDatabaseClient.sql("SELECT last_id FROM change_event_sequence WHERE id = :id")
+                        .bind("id", ChangeEventSequence.ROW_ID)
+                        .map(row -> row.get("last_id", Long.class))
+                        .one())
+                .flatMap(id -> insert(id, event));
+    }
+
+    private Mono<Void> insert(Long id, ChangeEvent event) {
+        DatabaseClient.GenericExecuteSpec spec = reactiveDatabaseClient.sql("INSERT INTO change_event " +
+                        "(id, aggregate_type, aggregate_id, event_type, quantity, booked, created_at) " +
+                        "VALUES (:id, :aggregateType, :aggregateId, :eventType, :quantity, :booked, :createdAt)")
+                .bind("id", id)
+                .bind("aggregateType", event.getAggregateType().name())
+                .bind("aggregateId", event.getAggregateId())
+                .bind("eventType", event.getEventType().name())
+                .bind("createdAt", event.getCreatedAt().atOffset(ZoneOffset.UTC));
+        spec = event.getQuantity() == null ? spec.bindNull("quantity", Integer.class) : spec.bind("quantity", event.getQuantity());
+        spec = event.getBooked() == null ? spec.bindNull("booked", Boolean.class) : spec.bind("booked", event.getBooked());
+        return spec.then();
+    }
+
+    private static ChangeEvent toEvent(Readable row) {
+        ChangeEvent event = new ChangeEvent();
+        event.setId(row.get("id", Long.class));
+        event.setAggregateType(ChangeEvent.AggregateType.valueOf(row.get("aggregate_type", String.class)));
+        event.setAggregateId(row.get("aggregate_id", Long.class));
+        event.setEventType(ChangeEvent.EventType.valueOf(row.get("event_type", String.class)));
+        event.setQuantity(row.get("quantity", Integer.class));
+        event.setBooked(row.get("booked", Boolean.class));
+        event.setCreatedAt(row.get("created_at", OffsetDateTime.class).toInstant());
+        return event;
+    }
+}
@@ -0,0 +1,56 @@
+package com.rajeswarandhandapani.dblocking.repository;
+
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the inventory_item table managed by JPA.
+ */
+@Repository
+public class ReactiveInventoryItemRepository {
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    public Flux<InventoryItem> findAll() {
+        return reactiveDatabaseClient.sql("SELECT id, name, quantity, version FROM inventory_item")
+                .map(ReactiveInventoryItemRepository::toItem)
+                .all();
+    }
+
+    public Mono<InventoryItem> findById(Long id) {
+        return reactiveDatabaseClient.sql("SELECT id, name, quantity, version FROM inventory_item WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveInventoryItemRepository::toItem)
+                .one();
+    }
+
+    /**
+     * Apply the new quantity only if the row still carries the expected version,
+     * bumping the version the same way Hibernate does for {@code @Version}.
+     * Emits the number of rows updated (0 means another writer got there first).
+     */
+    public Mono<Long> updateQuantityIfVersion(Long id, int newQuantity, int expectedVersion) {
+        return reactiveDatabaseClient.sql("UPDATE inventory_item SET quantity = :quantity, version = version + 1 " +
+                        "WHERE id = :id AND version = :version")
+                .bind("quantity", newQuantity)
+                .bind("id", id)
+                .bind("version", expectedVersion)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static InventoryItem toItem(Readable row) {
+        InventoryItem item = new InventoryItem();
+        item.setId(row.get("id", Long.class));
+        item.setName(row.get("name", String.class));
+        item.setQuantity(row.get("quantity", Integer.class));
+        item.setVersion(row.get("version", Integer.class));
+        return item;
+    }
+}
@@ -0,0 +1,62 @@
+package com.rajeswarandhandapani.dblocking.repository;
+
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking access to the ticket table managed by JPA.
+ */
+@Repository
+public class ReactiveTicketRepository {
+
+    @Autowired
+    private DatabaseClient reactiveDatabaseClient;
+
+    public Flux<Ticket> findAll() {
+        return reactiveDatabaseClient.sql("SELECT id, name, booked, version, reserved_by, reserved_until FROM ticket")
+                .map(ReactiveTicketRepository::toTicket)
+                .all();
+    }
+
+    public Mono<Ticket> findById(Long id) {
+        return reactiveDatabaseClient.sql("SELECT id, name, booked, version, reserved_by, reserved_until FROM ticket WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveTicketRepository::toTicket)
+                .one();
+    }
+
+    /**
+     * Book the ticket in a single conditional UPDATE: it succeeds only if the ticket
+     * is not booked and not held under a live reservation.
+     * Emits the number of rows updated (0 or 1).
+     */
+    public Mono<Long> bookIfAvailable(Long id, Instant now) {
+        return reactiveDatabaseClient.sql("UPDATE ticket SET booked = TRUE, reserved_by = NULL, reserved_until = NULL, version = version + 1 " +
+                        "WHERE id = :id AND booked = FALSE AND (reserved_until IS NULL OR reserved_until < :now)")
+                .bind("id", id)
+                .bind("now", now.atOffset(ZoneOffset.UTC))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static Ticket toTicket(Readable row) {
+        Ticket ticket = new Ticket();
+        ticket.setId(row.get("id", Long.class));
+        ticket.setName(row.get("name", String.class));
+        ticket.setBooked(Boolean.TRUE.equals(row.get("booked", Boolean.class)));
+        ticket.setVersion(row.get("version", Integer.class));
+        ticket.setReservedBy(row.get("reserved_by", String.class));
+        OffsetDateTime reservedUntil = row.get("reserved_until", OffsetDateTime.class);
+        ticket.setReservedUntil(reservedUntil == null ? null : reservedUntil.toInstant());
+        return ticket;
+    }
+}
@@ -1,21 +1,69 @@
 package com.rajeswarandhandapani.dblocking.repository;
 
 import com.rajeswarandhandapani.dblocking.model.Ticket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import jakarta.persistence.LockModeType;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Ticket findByIdAndName(Long id, String name);
-    
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT t FROM Ticket t WHERE t.id = :id")
     Optional<Ticket> findByIdWithLock(@Param("id") Long id);
+
+    /**
+     * Grab a lease on an unbooked ticket whose previous lease (if any) has expired.
+     * Returns the number of rows updated (0 or 1).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.reservedBy = :holder, t.reservedUntil = :until, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.booked = false " +
+           "AND (t.reservedUntil IS NULL OR t.reservedUntil < :now OR t.reservedBy = :holder)")
+    int reserve(@Param("id") Long id, @Param("holder") String holder,
+                @Param("now") Instant now, @Param("until") Instant until);
+
+    /**
+     * Convert a live lease held by the given holder into a booking.
+     * Returns the number of rows updated (0 or 1).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.booked = true, t.reservedBy = null, t.reservedUntil = null, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.booked = false AND t.reservedBy = :holder AND t.reservedUntil >= :now")
+    int confirmReservation(@Param("id") Long id, @Param("holder") String holder, @Param("now") Instant now);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.booked = false AND t.reservedUntil < :now ORDER BY t.reservedUntil")
+    List<Long> findExpiredReservationIds(@Param("now") Instant now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Ticket t WHERE t.id IN :ids")
+    List<Ticket> lockAllById(@Param("ids") List<Long> ids);
+
+    @Query("SELECT t.id FROM Ticket t WHERE t.id IN :ids AND t.booked = false AND t.reservedUntil < :now")
+    List<Long> findExpiredReservationIdsAmong(@Param("ids") List<Long> ids, @Param("now") Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.reservedBy = null, t.reservedUntil = null, t.version = t.version + 1 " +
+           "WHERE t.id IN :ids AND t.booked = false AND t.reservedUntil < :now")
+    int releaseExpiredReservations(@Param("ids") List<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Book an unbooked, unreserved ticket in a single conditional UPDATE, dropping any
+     * expired lease. Returns the number of rows updated (0 or 1).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Ticket t SET t.booked = true, t.reservedBy = null, t.reservedUntil = null, t.version = t.version + 1 " +
+           "WHERE t.id = :id AND t.booked = false AND (t.reservedUntil IS NULL OR t.reservedUntil < :now)")
+    int bookIfAvailable(@Param("id") Long id, @Param("now") Instant now);
 }
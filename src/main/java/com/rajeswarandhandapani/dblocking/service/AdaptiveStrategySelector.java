@@ -0,0 +1,282 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks a locking strategy per inventory item and ticket from the contention observed
+ * on that key. Every operation contributes one sample to an exponentially weighted
+ * contention rate: it counts as contended if it hit an optimistic conflict, waited
+ * longer than the wait threshold for a row lock, or overlapped another operation on
+ * the same key. Keys escalate OPTIMISTIC -> PESSIMISTIC -> ATOMIC as the rate rises
+ * and step back down as it falls, using separate up/down thresholds and a minimum
+ * number of samples between switches so a key does not flap.
+ * At most max-keys keys are tracked; beyond that the least recently used idle keys
+ * are dropped and start again from their resource's initial strategy.
+ */
+@Component
+public class AdaptiveStrategySelector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveStrategySelector.class);
+
+    public enum Resource {
+        INVENTORY_ITEM(LockingStrategy.OPTIMISTIC),
+        TICKET(LockingStrategy.PESSIMISTIC);
+
+        private final LockingStrategy initialStrategy;
+
+        Resource(LockingStrategy initialStrategy) {
+            this.initialStrategy = initialStrategy;
+        }
+    }
+
+    private record Key(Resource resource, Long id) {
+    }
+
+    private final Map<Key, KeyState> states = new ConcurrentHashMap<>();
+
+    // Maintained on create, switch and evict so the gauges never scan states
+    private final Map<Resource, Map<LockingStrategy, AtomicLong>> keyCounts = new EnumMap<>(Resource.class);
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${locking.adaptive.smoothing:0.1}")
+    private double smoothing;
+
+    @Value("${locking.adaptive.min-samples-between-switches:20}")
+    private int minSamplesBetweenSwitches;
+
+    @Value("${locking.adaptive.pessimistic-above:0.2}")
+    private double pessimisticAbove;
+
+    @Value("${locking.adaptive.optimistic-below:0.05}")
+    private double optimisticBelow;
+
+    @Value("${locking.adaptive.atomic-above:0.5}")
+    private double atomicAbove;
+
+    @Value("${locking.adaptive.pessimistic-below:0.3}")
+    private double pessimisticBelow;
+
+    @Value("${locking.adaptive.lock-wait-threshold:PT0.02S}")
+    private Duration lockWaitThreshold;
+
+    @Value("${locking.adaptive.max-keys:10000}")
+    private int maxKeys;
+
+    public AdaptiveStrategySelector(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (Resource resource : Resource.values()) {
+            Map<LockingStrategy, AtomicLong> counts = new EnumMap<>(LockingStrategy.class);
+            for (LockingStrategy strategy : LockingStrategy.values()) {
+                AtomicLong count = new AtomicLong();
+                counts.put(strategy, count);
+                Gauge.builder("locking.adaptive.keys", count, AtomicLong::get)
+                        .description("Number of keys currently handled with each locking strategy")
+                        .tag("resource", resource.name())
+                        .tag("strategy", strategy.name())
+                        .register(meterRegistry);
+            }
+            keyCounts.put(resource, counts);
+        }
+    }
+
+    /**
+     * Start an operation on the given key. The returned observation carries the
+     * strategy to use and must be closed when the operation completes.
+     */
+    public Observation begin(Resource resource, Long id) {
+        KeyState state = states.computeIfAbsent(new Key(resource, id), key -> {
+            keyCount(resource, resource.initialStrategy).incrementAndGet();
+            return new KeyState(resource, resource.initialStrategy);
+        });
+        if (states.size() > maxKeys) {
+            evictIdleKeys();
+        }
+        state.lastUsedNanos = System.nanoTime();
+        boolean overlapped = state.inFlight.incrementAndGet() > 1;
+        LockingStrategy fixed = fixedStrategy(resource);
+        return fixed != null
+                ? new Observation(resource, id, state, fixed, overlapped, false)
+                : new Observation(resource, id, state, state.strategy, overlapped, true);
+    }
+
+    public LockingStrategy currentStrategy(Resource resource, Long id) {
+        KeyState state = states.get(new Key(resource, id));
+        return state != null ? state.strategy : resource.initialStrategy;
+    }
+
+    /**
+     * Strategy to use for every key of the resource instead of the adaptive choice,
+     * or null to adapt. Contention is still observed but no key switches.
+     */
+    protected LockingStrategy fixedStrategy(Resource resource) {
+        return null;
+    }
+
+    private AtomicLong keyCount(Resource resource, LockingStrategy strategy) {
+        return keyCounts.get(resource).get(strategy);
+    }
+
+    /**
+     * Drop the least recently used idle keys until the map is back to 90% of max-keys.
+     * Only one thread evicts at a time; the others carry on over the limit meanwhile.
+     */
+    private void evictIdleKeys() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            record Candidate(Key key, KeyState state, long lastUsedNanos) {
+            }
+            // Snapshot lastUsedNanos so the sort order cannot change underneath the sort
+            List<Candidate> idle = states.entrySet().stream()
+                    .filter(entry -> entry.getValue().inFlight.get() == 0)
+                    .map(entry -> new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastUsedNanos))
+                    .sorted(Comparator.comparingLong(Candidate::lastUsedNanos))
+                    .toList();
+            int target = maxKeys - maxKeys / 10;
+            for (Candidate candidate : idle) {
+                if (states.size() <= target) {
+                    break;
+                }
+                candidate.state().evict(candidate.key());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    public class Observation implements AutoCloseable {
+
+        private final Resource resource;
+        private final Long id;
+        private final KeyState state;
+        private final LockingStrategy strategy;
+        private final boolean adaptive;
+        private boolean contended;
+
+        private Observation(Resource resource, Long id, KeyState state, LockingStrategy strategy,
+                            boolean overlapped, boolean adaptive) {
+            this.resource = resource;
+            this.id = id;
+            this.state = state;
+            this.strategy = strategy;
+            this.contended = overlapped;
+            this.adaptive = adaptive;
+        }
+
+        public LockingStrategy strategy() {
+            return strategy;
+        }
+
+        public void conflict() {
+            contended = true;
+        }
+
+        public void lockWait(Duration wait) {
+            if (wait.compareTo(lockWaitThreshold) > 0) {
+                contended = true;
+            }
+        }
+
+        @Override
+        public void close() {
+            state.inFlight.decrementAndGet();
+            Counter.builder("locking.adaptive.operations")
+                    .tag("resource", resource.name())
+                    .tag("strategy", strategy.name())
+                    .tag("contended", String.valueOf(contended))
+                    .register(meterRegistry)
+                    .increment();
+
+            if (!adaptive) {
+                return;
+            }
+            LockingStrategy previous = state.record(contended);
+            if (previous != null) {
+                logger.info("Switched {} {} from {} to {} (contention rate {})",
+                        resource, id, previous, state.strategy, String.format("%.2f", state.contentionRate));
+                Counter.builder("locking.adaptive.switches")
+                        .tag("resource", resource.name())
+                        .tag("from", previous.name())
+                        .tag("to", state.strategy.name())
+                        .register(meterRegistry)
+                        .increment();
+            }
+        }
+    }
+
+    private class KeyState {
+
+        private final Resource resource;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile LockingStrategy strategy;
+        private volatile long lastUsedNanos;
+        private double contentionRate;
+        private int samplesSinceSwitch;
+        private boolean evicted;
+
+        private KeyState(Resource resource, LockingStrategy initialStrategy) {
+            this.resource = resource;
+            this.strategy = initialStrategy;
+        }
+
+        private synchronized void evict(Key key) {
+            if (evicted || inFlight.get() > 0) {
+                return;
+            }
+            evicted = true;
+            states.remove(key, this);
+            keyCount(resource, strategy).decrementAndGet();
+        }
+
+        /**
+         * Fold one sample into the contention rate. Returns the previous strategy if
+         * this sample caused a switch, otherwise null.
+         */
+        private synchronized LockingStrategy record(boolean contended) {
+            if (evicted) {
+                // An operation that began just before eviction; a fresh state now owns the key
+                return null;
+            }
+            contentionRate += smoothing * ((contended ? 1.0 : 0.0) - contentionRate);
+            if (++samplesSinceSwitch < minSamplesBetweenSwitches) {
+                return null;
+            }
+
+            LockingStrategy next = switch (strategy) {
+                case OPTIMISTIC -> contentionRate > pessimisticAbove ? LockingStrategy.PESSIMISTIC : LockingStrategy.OPTIMISTIC;
+                case PESSIMISTIC -> contentionRate > atomicAbove ? LockingStrategy.ATOMIC
+                        : contentionRate < optimisticBelow ? LockingStrategy.OPTIMISTIC : LockingStrategy.PESSIMISTIC;
+                case ATOMIC -> contentionRate < pessimisticBelow ? LockingStrategy.PESSIMISTIC : LockingStrategy.ATOMIC;
+            };
+            if (next == strategy) {
+                return null;
+            }
+            LockingStrategy previous = strategy;
+            strategy = next;
+            samplesSinceSwitch = 0;
+            keyCount(resource, previous).decrementAndGet();
+            keyCount(resource, next).incrementAndGet();
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveChangeEventRepository;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams outbox change events incrementally from a sequence cursor. Each poll is an
+ * index range scan on the primary key that usually returns nothing, which is far
+ * cheaper than clients re-fetching the full ticket and inventory lists. Writers commit
+ * events in id order (see ChangeEventSequence), so moving the cursor past the last id
+ * seen never skips an event that commits later.
+ * One poll loop is shared by every subscriber, so database load does not grow with the
+ * number of connected clients. A subscriber only reads the table itself to catch up
+ * from its own cursor when it connects or falls behind the shared loop.
+ */
+@Service
+public class ChangeFeedService implements InitializingBean {
+
+    /**
+     * New events from one shared poll, all with ids after afterId and none missing in between.
+     */
+    private record Batch(long afterId, List<ChangeEvent> events) {
+
+        long lastId() {
+            return events.get(events.size() - 1).getId();
+        }
+    }
+
+    @Autowired
+    private ReactiveChangeEventRepository reactiveChangeEventRepository;
+
+    @Value("${change-feed.poll-interval:PT0.5S}")
+    private Duration pollInterval;
+
+    @Value("${change-feed.batch-size:500}")
+    private int batchSize;
+
+    @Value("${change-feed.max-pending-batches:64}")
+    private int maxPendingBatches;
+
+    private final AtomicLong head = new AtomicLong();
+
+    private Flux<Batch> liveBatches;
+
+    @Override
+    public void afterPropertiesSet() {
+        // Runs while anyone is subscribed and restarts from the latest id for the next one
+        liveBatches = Flux.defer(() -> reactiveChangeEventRepository.findLatestId()
+                        .doOnNext(head::set)
+                        .thenMany(Flux.interval(Duration.ZERO, pollInterval)
+                                .onBackpressureDrop()
+                                .concatMap(tick -> pollNewEvents(), 1)))
+                .share();
+    }
+
+    public Mono<Long> getLatestCursor() {
+        return reactiveChangeEventRepository.findLatestId();
+    }
+
+    public Flux<ChangeEvent> streamAfter(long cursor) {
+        return Flux.defer(() -> {
+            AtomicLong position = new AtomicLong(cursor);
+
+            // Join the shared loop before catching up, buffering what it emits meanwhile, so
+            // every event is either read by the catch-up or arrives in a later batch. A client
+            // too slow to drain the buffer gets an error and resumes from its Last-Event-ID.
+            Sinks.Many<Batch> pending = Sinks.many().unicast().onBackpressureBuffer(Queues.<Batch>get(maxPendingBatches).get());
+            Disposable live = liveBatches.subscribe(batch -> {
+                if (pending.tryEmitNext(batch).isFailure()) {
+                    pending.tryEmitError(new IllegalStateException("Change feed subscriber fell behind"));
+                }
+            }, pending::tryEmitError, pending::tryEmitComplete);
+
+            return Flux.concat(
+                            readAfter(position, Long.MAX_VALUE),
+                            pending.asFlux().concatMap(batch -> Flux.concat(
+                                    readAfter(position, batch.afterId()),
+                                    Flux.fromIterable(batch.events())), 1))
+                    .filter(event -> event.getId() > position.get())
+                    .doOnNext(event -> position.set(event.getId()))
+                    .doFinally(signal -> live.dispose());
+        });
+    }
+
+    private Flux<Batch> pollNewEvents() {
+        return Flux.defer(() -> fetchAfter(head.get()))
+                .expand(batch -> batch.events().size() < batchSize ? Mono.empty() : fetchAfter(batch.lastId()))
+                .filter(batch -> !batch.events().isEmpty())
+                .doOnNext(batch -> head.set(batch.lastId()));
+    }
+
+    /**
+     * Reads this subscriber's missing events from the table, from its position up to at
+     * least upToId, or until the table is exhausted.
+     */
+    private Flux<ChangeEvent> readAfter(AtomicLong position, long upToId) {
+        return Flux.defer(() -> position.get() >= upToId
+                        ? Flux.<Batch>empty()
+                        : fetchAfter(position.get())
+                                .expand(batch -> batch.events().size() < batchSize || batch.lastId() >= upToId
+                                        ? Mono.empty()
+                                        : fetchAfter(batch.lastId())))
+                .flatMapIterable(Batch::events);
+    }
+
+    private Mono<Batch> fetchAfter(long afterId) {
+        return reactiveChangeEventRepository.findAfter(afterId, batchSize)
+                .collectList()
+                .map(events -> new Batch(afterId, events));
+    }
+}
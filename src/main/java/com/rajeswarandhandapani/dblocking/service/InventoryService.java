@@ -1,13 +1,18 @@
 package com.rajeswarandhandapani.dblocking.service;
 
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
 import com.rajeswarandhandapani.dblocking.model.InventoryItem;
 import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +24,19 @@ public class InventoryService {
     @Autowired
     private InventoryItemRepository inventoryItemRepository;
 
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private AdaptiveStrategySelector strategySelector;
+
+    @Value("${simulation.update-delay:PT5S}")
+    private Duration updateProcessingDelay;
+
+    @Value("${simulation.reduce-delay:PT1S}")
+    private Duration reduceProcessingDelay;
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<InventoryItem> getAllItems() {
         return inventoryItemRepository.findAll();
     }
@@ -28,6 +46,7 @@ public class InventoryService {
         return inventoryItemRepository.save(item);
     }
 
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public Optional<InventoryItem> getItemById(Long id) {
         return inventoryItemRepository.findById(id);
     }
@@ -36,7 +55,7 @@ public class InventoryService {
      * Update inventory quantity using optimistic locking.
      * This method demonstrates how optimistic locking handles concurrent updates.
      */
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public InventoryItem updateQuantity(Long id, int newQuantity) throws InterruptedException {
         logger.info("Attempting to update quantity for inventory item ID: {} to {}", id, newQuantity);
         
@@ -53,24 +72,83 @@ public class InventoryService {
         }
         
         // Simulate some processing time to increase chance of concurrent access
-        Thread.sleep(5000);
+        Thread.sleep(updateProcessingDelay.toMillis());
         
         item.setQuantity(newQuantity);
         InventoryItem savedItem = inventoryItemRepository.save(item);
+        outboxWriter.append(ChangeEvent.forInventoryItem(id, ChangeEvent.EventType.QUANTITY_UPDATED, savedItem.getQuantity()));
         
         logger.info("Successfully updated inventory item: {} to quantity {}", savedItem.getName(), savedItem.getQuantity());
         return savedItem;
     }
 
     /**
-     * Reduce inventory quantity (simulating a purchase)
+     * Reduce inventory quantity (simulating a purchase).
+     * The locking strategy is chosen per item by the AdaptiveStrategySelector from the
+     * contention recently observed on it.
      */
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public InventoryItem reduceQuantity(Long id, int amount) throws InterruptedException {
-        logger.info("Attempting to reduce quantity for inventory item ID: {} by {}", id, amount);
-        
-        Optional<InventoryItem> optionalItem = inventoryItemRepository.findById(id);
-        
+        try (AdaptiveStrategySelector.Observation observation =
+                     strategySelector.begin(AdaptiveStrategySelector.Resource.INVENTORY_ITEM, id)) {
+            logger.info("Attempting to reduce quantity for inventory item ID: {} by {} ({})", id, amount, observation.strategy());
+
+            InventoryItem savedItem = switch (observation.strategy()) {
+                case OPTIMISTIC -> reduceOptimistically(id, amount, observation);
+                case PESSIMISTIC -> reducePessimistically(id, amount, observation);
+                case ATOMIC -> reduceAtomically(id, amount);
+            };
+            outboxWriter.append(ChangeEvent.forInventoryItem(id, ChangeEvent.EventType.QUANTITY_REDUCED, savedItem.getQuantity()));
+
+            logger.info("Successfully reduced inventory item: {} by {}. New quantity: {}",
+                       savedItem.getName(), amount, savedItem.getQuantity());
+            return savedItem;
+        }
+    }
+
+    private InventoryItem reduceOptimistically(Long id, int amount, AdaptiveStrategySelector.Observation observation) throws InterruptedException {
+        InventoryItem item = findForReduction(inventoryItemRepository.findById(id), id, amount);
+
+        // Simulate some processing time
+        Thread.sleep(reduceProcessingDelay.toMillis());
+
+        item.setQuantity(item.getQuantity() - amount);
+        try {
+            // Flush now so a version conflict is observed here rather than at commit
+            return inventoryItemRepository.saveAndFlush(item);
+        } catch (OptimisticLockingFailureException e) {
+            observation.conflict();
+            throw e;
+        }
+    }
+
+    private InventoryItem reducePessimistically(Long id, int amount, AdaptiveStrategySelector.Observation observation) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        Optional<InventoryItem> optionalItem = inventoryItemRepository.findByIdWithLock(id);
+        observation.lockWait(Duration.ofNanos(System.nanoTime() - waitStart));
+        InventoryItem item = findForReduction(optionalItem, id, amount);
+
+        // Simulate some processing time
+        Thread.sleep(reduceProcessingDelay.toMillis());
+
+        item.setQuantity(item.getQuantity() - amount);
+        return inventoryItemRepository.save(item);
+    }
+
+    private InventoryItem reduceAtomically(Long id, int amount) throws InterruptedException {
+        findForReduction(inventoryItemRepository.findById(id), id, amount);
+
+        // Simulate some processing time, outside of any lock
+        Thread.sleep(reduceProcessingDelay.toMillis());
+
+        if (inventoryItemRepository.reduceQuantityIfAvailable(id, amount) == 0) {
+            int current = inventoryItemRepository.findById(id).map(InventoryItem::getQuantity).orElse(0);
+            throw new IllegalStateException("Insufficient quantity available. Current: " + current + ", Requested: " + amount);
+        }
+        return inventoryItemRepository.findById(id).orElseThrow();
+    }
+
+    private InventoryItem findForReduction(Optional<InventoryItem> optionalItem, Long id, int amount) {
         if (optionalItem.isEmpty()) {
             throw new IllegalArgumentException("Inventory item not found with ID: " + id);
         }
@@ -84,15 +162,6 @@ public class InventoryService {
         if (item.getQuantity() < amount) {
             throw new IllegalStateException("Insufficient quantity available. Current: " + item.getQuantity() + ", Requested: " + amount);
         }
-        
-        // Simulate some processing time
-        Thread.sleep(1000);
-        
-        item.setQuantity(item.getQuantity() - amount);
-        InventoryItem savedItem = inventoryItemRepository.save(item);
-        
-        logger.info("Successfully reduced inventory item: {} by {}. New quantity: {}", 
-                   savedItem.getName(), amount, savedItem.getQuantity());
-        return savedItem;
+        return item;
     }
 }
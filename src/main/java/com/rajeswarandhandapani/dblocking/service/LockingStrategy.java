@@ -0,0 +1,13 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+/**
+ * How a contended write is protected.
+ */
+public enum LockingStrategy {
+    /** Read, then write with a version check; conflicts surface at flush. */
+    OPTIMISTIC,
+    /** SELECT ... FOR UPDATE, so concurrent writers queue on the row lock. */
+    PESSIMISTIC,
+    /** A single conditional UPDATE; no read-modify-write window at all. */
+    ATOMIC
+}
@@ -0,0 +1,107 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.model.ChangeEventSequence;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends change events to the outbox table as part of the current transaction.
+ * Events are buffered and written in one JDBC batch just before commit, so the
+ * locked section only pays for a single round trip however many events it emits.
+ * Ids are taken from the change_event_sequence row, whose lock is held until commit,
+ * so transactions commit their events in id order.
+ */
+@Component
+public class OutboxWriter implements SmartInitializingSingleton {
+
+    private static final String INIT_SEQUENCE_SQL = "INSERT INTO change_event_sequence (id, last_id) " +
+            "SELECT ?, COALESCE(MAX(id), 0) FROM change_event " +
+            "WHERE NOT EXISTS (SELECT 1 FROM change_event_sequence WHERE id = ?)";
+
+    private static final String ADVANCE_SEQUENCE_SQL = "UPDATE change_event_sequence SET last_id = last_id + ? WHERE id = ?";
+
+    private static final String READ_SEQUENCE_SQL = "SELECT last_id FROM change_event_sequence WHERE id = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO change_event " +
+            "(id, aggregate_type, aggregate_id, event_type, quantity, booked, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        // The schema exists once the EntityManagerFactory is up; seed the counter from any existing events
+        jdbcTemplate.update(INIT_SEQUENCE_SQL, ChangeEventSequence.ROW_ID, ChangeEventSequence.ROW_ID);
+    }
+
+    public void append(ChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Change events must be appended inside a transaction");
+        }
+
+        @SuppressWarnings("unchecked")
+        List<ChangeEvent> pending = (List<ChangeEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<ChangeEvent> buffer = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, buffer);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    writeBatch(buffer);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxWriter.this);
+                }
+            });
+            pending = buffer;
+        }
+        pending.add(event);
+    }
+
+    private void writeBatch(List<ChangeEvent> events) {
+        // Flush entity changes first: a flush that waits on another writer's row lock must
+        // not do so while this transaction holds the sequence row and stalls every writer
+        entityManager.flush();
+
+        long lastId = reserveIds(events.size());
+        long nextId = lastId - events.size() + 1;
+        for (ChangeEvent event : events) {
+            event.setId(nextId++);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.getId());
+            ps.setString(2, event.getAggregateType().name());
+            ps.setLong(3, event.getAggregateId());
+            ps.setString(4, event.getEventType().name());
+            ps.setObject(5, event.getQuantity());
+            ps.setObject(6, event.getBooked());
+            ps.setObject(7, event.getCreatedAt().atOffset(ZoneOffset.UTC));
+        });
+    }
+
+    /**
+     * Advances the counter by count, locking its row until this transaction ends,
+     * and returns the last id reserved.
+     */
+    private long reserveIds(int count) {
+        jdbcTemplate.update(ADVANCE_SEQUENCE_SQL, count, ChangeEventSequence.ROW_ID);
+        return jdbcTemplate.queryForObject(READ_SEQUENCE_SQL, Long.class, ChangeEventSequence.ROW_ID);
+    }
+}
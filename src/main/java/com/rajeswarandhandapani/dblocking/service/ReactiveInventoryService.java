@@ -0,0 +1,77 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveChangeEventRepository;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveInventoryItemRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+@Service
+public class ReactiveInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveInventoryService.class);
+
+    @Autowired
+    private ReactiveInventoryItemRepository reactiveInventoryItemRepository;
+
+    @Autowired
+    private ReactiveChangeEventRepository reactiveChangeEventRepository;
+
+    @Autowired
+    private TransactionalOperator reactiveTransactionalOperator;
+
+    @Value("${reactive.processing-delay:PT1S}")
+    private Duration processingDelay;
+
+    public Flux<InventoryItem> getAllItems() {
+        return reactiveInventoryItemRepository.findAll();
+    }
+
+    public Mono<InventoryItem> getItemById(Long id) {
+        return reactiveInventoryItemRepository.findById(id);
+    }
+
+    /**
+     * Reduce inventory quantity using optimistic locking without blocking a thread.
+     * Same semantics as InventoryService.reduceQuantity: the write only applies if the
+     * version read earlier is still current, otherwise the caller gets a conflict.
+     */
+    public Mono<InventoryItem> reduceQuantity(Long id, int amount) {
+        logger.info("Attempting to reduce quantity for inventory item ID: {} by {} (reactive)", id, amount);
+
+        return reactiveInventoryItemRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Inventory item not found with ID: " + id)))
+                .flatMap(item -> {
+                    if (amount <= 0) {
+                        return Mono.error(new IllegalArgumentException("Reduction amount must be positive"));
+                    }
+                    if (item.getQuantity() < amount) {
+                        return Mono.error(new IllegalStateException("Insufficient quantity available. Current: " + item.getQuantity() + ", Requested: " + amount));
+                    }
+
+                    // Simulate some processing time without holding a thread or a connection
+                    int newQuantity = item.getQuantity() - amount;
+                    return Mono.delay(processingDelay)
+                            .then(reactiveInventoryItemRepository.updateQuantityIfVersion(id, newQuantity, item.getVersion())
+                                    .flatMap(updated -> updated == 0
+                                            ? Mono.error(new OptimisticLockingFailureException("Inventory item " + id + " was modified concurrently"))
+                                            : reactiveInventoryItemRepository.findById(id)
+                                                    // Append last: it locks the event sequence row until commit
+                                                    .flatMap(saved -> reactiveChangeEventRepository.append(ChangeEvent.forInventoryItem(id, ChangeEvent.EventType.QUANTITY_REDUCED, newQuantity))
+                                                            .thenReturn(saved)))
+                                    .as(reactiveTransactionalOperator::transactional));
+                })
+                .doOnNext(savedItem -> logger.info("Successfully reduced inventory item: {} by {}. New quantity: {} (reactive)",
+                        savedItem.getName(), amount, savedItem.getQuantity()));
+    }
+}
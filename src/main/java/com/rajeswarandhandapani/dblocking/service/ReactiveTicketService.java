@@ -0,0 +1,73 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveChangeEventRepository;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveTicketRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Service
+public class ReactiveTicketService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveTicketService.class);
+
+    @Autowired
+    private ReactiveTicketRepository reactiveTicketRepository;
+
+    @Autowired
+    private ReactiveChangeEventRepository reactiveChangeEventRepository;
+
+    @Autowired
+    private TransactionalOperator reactiveTransactionalOperator;
+
+    public Flux<Ticket> getAllTickets() {
+        return reactiveTicketRepository.findAll();
+    }
+
+    public Mono<Ticket> getTicketById(Long id) {
+        return reactiveTicketRepository.findById(id);
+    }
+
+    /**
+     * Book a ticket with an atomic conditional update instead of a row lock,
+     * so no thread ever waits on another booking.
+     */
+    public Mono<Ticket> bookTicket(Long id) {
+        logger.info("Attempting to book ticket with ID: {} (reactive)", id);
+
+        // Deferred so each subscription compares leases against its own current time
+        return Mono.defer(() -> {
+                    Instant now = Instant.now();
+                    return reactiveTicketRepository.bookIfAvailable(id, now)
+                            .flatMap(updated -> updated > 0
+                                    ? reactiveTicketRepository.findById(id)
+                                            // Append last: it locks the event sequence row until commit
+                                            .flatMap(ticket -> reactiveChangeEventRepository.append(ChangeEvent.forTicket(id, ChangeEvent.EventType.BOOKED, true))
+                                                    .thenReturn(ticket))
+                                    : rejectBooking(id, now));
+                })
+                .as(reactiveTransactionalOperator::transactional)
+                .doOnNext(savedTicket -> logger.info("Successfully booked ticket: {} (reactive)", savedTicket));
+    }
+
+    private Mono<Ticket> rejectBooking(Long id, Instant now) {
+        return reactiveTicketRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Ticket not found with ID: " + id)))
+                .flatMap(ticket -> {
+                    if (ticket.isBooked()) {
+                        logger.warn("Ticket {} is already booked", id);
+                        return Mono.error(new IllegalStateException("Ticket is already booked"));
+                    }
+                    logger.warn("Ticket {} is reserved by {}", id, ticket.getReservedBy());
+                    return Mono.error(new IllegalStateException("Ticket is currently reserved"));
+                });
+    }
+}
@@ -0,0 +1,38 @@
+package com.rajeswarandhandapani.dblocking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically releases expired ticket reservations in small batches,
+ * each in its own short transaction.
+ */
+@Component
+public class ReservationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationSweeper.class);
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Value("${reservation.sweep-batch-size:100}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${reservation.sweep-interval:PT10S}")
+    public void releaseExpiredReservations() {
+        int total = 0;
+        int released;
+        do {
+            released = ticketService.releaseExpiredReservations(batchSize);
+            total += released;
+        } while (released == batchSize);
+
+        if (total > 0) {
+            logger.info("Released {} expired ticket reservations", total);
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.rajeswarandhandapani.dblocking.service;
 
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
 import com.rajeswarandhandapani.dblocking.model.Ticket;
 import com.rajeswarandhandapani.dblocking.repository.TicketRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +26,19 @@ public class TicketService {
     @Autowired
     private TicketRepository ticketRepository;
 
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private AdaptiveStrategySelector strategySelector;
+
+    @Value("${simulation.booking-delay:PT10S}")
+    private Duration bookingProcessingDelay;
+
+    @Value("${reservation.ttl:PT5M}")
+    private Duration reservationTtl;
+
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public List<Ticket> getAllTickets() {
         return ticketRepository.findAll();
     }
@@ -28,21 +48,85 @@ public class TicketService {
         return ticketRepository.save(ticket);
     }
 
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
     public Optional<Ticket> getTicketById(Long id) {
         return ticketRepository.findById(id);
     }
 
     /**
-     * Book a ticket using pessimistic locking.
-     * This method demonstrates how pessimistic locking prevents concurrent bookings.
+     * Book a ticket. Pessimistic locking is the starting point, but the strategy is
+     * chosen per ticket by the AdaptiveStrategySelector from the contention recently
+     * observed on it.
      */
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Ticket bookTicket(Long id) throws InterruptedException {
-        logger.info("Attempting to book ticket with ID: {}", id);
-        
+        try (AdaptiveStrategySelector.Observation observation =
+                     strategySelector.begin(AdaptiveStrategySelector.Resource.TICKET, id)) {
+            logger.info("Attempting to book ticket with ID: {} ({})", id, observation.strategy());
+
+            Ticket savedTicket = switch (observation.strategy()) {
+                case OPTIMISTIC -> bookOptimistically(id, observation);
+                case PESSIMISTIC -> bookPessimistically(id, observation);
+                case ATOMIC -> bookAtomically(id);
+            };
+            outboxWriter.append(ChangeEvent.forTicket(id, ChangeEvent.EventType.BOOKED, true));
+
+            logger.info("Successfully booked ticket: {}", savedTicket);
+            return savedTicket;
+        }
+    }
+
+    private Ticket bookOptimistically(Long id, AdaptiveStrategySelector.Observation observation) throws InterruptedException {
+        Ticket ticket = findBookable(ticketRepository.findById(id), id);
+
+        // Simulate some processing time
+        Thread.sleep(bookingProcessingDelay.toMillis());
+
+        book(ticket);
+        try {
+            // Flush now so a version conflict is observed here rather than at commit
+            return ticketRepository.saveAndFlush(ticket);
+        } catch (OptimisticLockingFailureException e) {
+            observation.conflict();
+            throw e;
+        }
+    }
+
+    private Ticket bookPessimistically(Long id, AdaptiveStrategySelector.Observation observation) throws InterruptedException {
         // Use pessimistic locking to prevent concurrent access
+        long waitStart = System.nanoTime();
         Optional<Ticket> optionalTicket = ticketRepository.findByIdWithLock(id);
-        
+        observation.lockWait(Duration.ofNanos(System.nanoTime() - waitStart));
+        Ticket ticket = findBookable(optionalTicket, id);
+
+        // Simulate some processing time
+        Thread.sleep(bookingProcessingDelay.toMillis());
+
+        book(ticket);
+        return ticketRepository.save(ticket);
+    }
+
+    private Ticket bookAtomically(Long id) throws InterruptedException {
+        findBookable(ticketRepository.findById(id), id);
+
+        // Simulate some processing time, outside of any lock
+        Thread.sleep(bookingProcessingDelay.toMillis());
+
+        if (ticketRepository.bookIfAvailable(id, Instant.now()) == 0) {
+            logger.warn("Ticket {} was booked or reserved concurrently", id);
+            throw new IllegalStateException("Ticket is already booked");
+        }
+        return ticketRepository.findById(id).orElseThrow();
+    }
+
+    // A bookable ticket may still carry an expired lease; drop it so the sweeper never sees it
+    private void book(Ticket ticket) {
+        ticket.setBooked(true);
+        ticket.setReservedBy(null);
+        ticket.setReservedUntil(null);
+    }
+
+    private Ticket findBookable(Optional<Ticket> optionalTicket, Long id) {
         if (optionalTicket.isEmpty()) {
             throw new IllegalArgumentException("Ticket not found with ID: " + id);
         }
@@ -53,21 +137,18 @@ public class TicketService {
             logger.warn("Ticket {} is already booked", id);
             throw new IllegalStateException("Ticket is already booked");
         }
-        
-        // Simulate some processing time
-        Thread.sleep(10000);
-        
-        ticket.setBooked(true);
-        Ticket savedTicket = ticketRepository.save(ticket);
-        
-        logger.info("Successfully booked ticket: {}", savedTicket);
-        return savedTicket;
+
+        if (ticket.isReservedAt(Instant.now())) {
+            logger.warn("Ticket {} is reserved by {}", id, ticket.getReservedBy());
+            throw new IllegalStateException("Ticket is currently reserved");
+        }
+        return ticket;
     }
 
     /**
-     * Cancel a ticket booking
+     * Cancel a ticket booking. Only a booked ticket can be cancelled.
      */
-    @Transactional
+    @Transactional(isolation = Isolation.READ_COMMITTED)
     public Ticket cancelBooking(Long id) {
         Optional<Ticket> optionalTicket = ticketRepository.findById(id);
         
@@ -76,10 +157,90 @@ public class TicketService {
         }
         
         Ticket ticket = optionalTicket.get();
+
+        // An unbooked ticket may carry another holder's live lease, which must survive
+        if (!ticket.isBooked()) {
+            logger.warn("Ticket {} is not booked", id);
+            throw new IllegalStateException("Ticket is not booked");
+        }
         ticket.setBooked(false);
+        ticket.setReservedBy(null);
+        ticket.setReservedUntil(null);
         Ticket savedTicket = ticketRepository.save(ticket);
+        outboxWriter.append(ChangeEvent.forTicket(id, ChangeEvent.EventType.CANCELLED, false));
         
         logger.info("Cancelled booking for ticket: {}", savedTicket);
         return savedTicket;
     }
+
+    /**
+     * Reserve a ticket for a holder using a lease instead of a row lock.
+     * A single conditional UPDATE grabs the lease, so the seat is held for the
+     * whole checkout without keeping a transaction or lock open.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Ticket reserveTicket(Long id, String holderId) {
+        logger.info("Attempting to reserve ticket with ID: {} for {}", id, holderId);
+
+        Instant now = Instant.now();
+        int updated = ticketRepository.reserve(id, holderId, now, now.plus(reservationTtl));
+
+        if (updated == 0) {
+            if (!ticketRepository.existsById(id)) {
+                throw new IllegalArgumentException("Ticket not found with ID: " + id);
+            }
+            throw new IllegalStateException("Ticket is already booked or reserved");
+        }
+        outboxWriter.append(ChangeEvent.forTicket(id, ChangeEvent.EventType.RESERVED, false));
+
+        Ticket reservedTicket = ticketRepository.findById(id).orElseThrow();
+        logger.info("Successfully reserved ticket: {}", reservedTicket);
+        return reservedTicket;
+    }
+
+    /**
+     * Confirm a reservation, converting the holder's live lease into a booking.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Ticket confirmReservation(Long id, String holderId) {
+        logger.info("Attempting to confirm reservation of ticket with ID: {} for {}", id, holderId);
+
+        int updated = ticketRepository.confirmReservation(id, holderId, Instant.now());
+
+        if (updated == 0) {
+            if (!ticketRepository.existsById(id)) {
+                throw new IllegalArgumentException("Ticket not found with ID: " + id);
+            }
+            throw new IllegalStateException("No active reservation for this holder");
+        }
+        outboxWriter.append(ChangeEvent.forTicket(id, ChangeEvent.EventType.BOOKED, true));
+
+        Ticket bookedTicket = ticketRepository.findById(id).orElseThrow();
+        logger.info("Successfully confirmed reservation: {}", bookedTicket);
+        return bookedTicket;
+    }
+
+    /**
+     * Release up to batchSize expired leases. Returns the number released.
+     * The candidate batch is locked and re-read before the update, so a lease renewed
+     * after the first query is neither released nor reported as RELEASED.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public int releaseExpiredReservations(int batchSize) {
+        Instant now = Instant.now();
+        List<Long> candidateIds = ticketRepository.findExpiredReservationIds(now, PageRequest.of(0, batchSize));
+
+        if (candidateIds.isEmpty()) {
+            return 0;
+        }
+        ticketRepository.lockAllById(candidateIds);
+        List<Long> expiredIds = ticketRepository.findExpiredReservationIdsAmong(candidateIds, now);
+
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        int released = ticketRepository.releaseExpiredReservations(expiredIds, now);
+        expiredIds.forEach(ticketId -> outboxWriter.append(ChangeEvent.forTicket(ticketId, ChangeEvent.EventType.RELEASED, false)));
+        return released;
+    }
 }
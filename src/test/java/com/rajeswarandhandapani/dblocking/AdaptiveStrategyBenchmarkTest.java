@@ -0,0 +1,154 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
+import com.rajeswarandhandapani.dblocking.service.AdaptiveStrategySelector;
+import com.rajeswarandhandapani.dblocking.service.InventoryService;
+import com.rajeswarandhandapani.dblocking.service.LockingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs a skewed purchase workload (half the traffic on one hot item, the rest spread
+ * over many cold items) with each fixed locking strategy and with adaptive selection,
+ * and compares goodput (successful reductions per second). Clients retry optimistic
+ * conflicts, so every strategy serves the same demand and pays for its own waste.
+ * Each fixed strategy is wrong for part of the traffic: OPTIMISTIC burns retries on
+ * the hot item, PESSIMISTIC queues the hot item behind the simulated processing, and
+ * ATOMIC pays a persistence-context clear and a re-read on every cold purchase too.
+ */
+@SpringBootTest(properties = {
+        "test.db.name=adaptive_benchmark",
+        "spring.jpa.show-sql=false",
+        "simulation.reduce-delay=PT0.002S",
+        "spring.main.allow-bean-definition-overriding=true"
+})
+@TestPropertySource(locations = "classpath:isolated-database.properties")
+@Import({PinnedStrategySelector.Config.class, TestFixtures.class})
+public class AdaptiveStrategyBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 2000;
+    private static final int ITEMS = 200;
+    private static final double HOT_ITEM_SHARE = 0.5;
+    private static final int INITIAL_QUANTITY = 10_000;
+    private static final int OPTIMISTIC_RETRIES = 10;
+    private static final int ROUNDS = 3;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveStrategyBenchmarkTest.class);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PinnedStrategySelector strategySelector;
+
+    @AfterEach
+    void unpin() {
+        strategySelector.pin(null);
+    }
+
+    /**
+     * Wall-clock comparison, so it only runs with -Pbenchmark. Every strategy is warmed
+     * up once, then the strategies take turns for several rounds so that drift in the
+     * machine's speed is shared between them.
+     */
+    @Test
+    @Tag("benchmark")
+    void testAdaptiveSelectionOnSkewedWorkload() throws Exception {
+        List<LockingStrategy> contenders = Arrays.asList(
+                LockingStrategy.OPTIMISTIC, LockingStrategy.PESSIMISTIC, LockingStrategy.ATOMIC, null);
+        for (LockingStrategy strategy : contenders) {
+            runWorkload(strategy);
+        }
+
+        Map<LockingStrategy, Integer> successes = new HashMap<>();
+        Map<LockingStrategy, Long> elapsedNanos = new HashMap<>();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (LockingStrategy strategy : contenders) {
+                ContentionHarness.Result result = runWorkload(strategy);
+                successes.merge(strategy, result.successes().size(), Integer::sum);
+                elapsedNanos.merge(strategy, result.elapsedNanos(), Long::sum);
+            }
+        }
+        Map<LockingStrategy, Double> goodput = new HashMap<>();
+        successes.forEach((strategy, count) ->
+                goodput.put(strategy, count / (elapsedNanos.get(strategy) / 1_000_000_000.0)));
+
+        double adaptive = goodput.get(null);
+        logger.info("Goodput on skewed workload (reductions/s): optimistic {}, pessimistic {}, atomic {}, adaptive {}",
+                String.format("%.1f", goodput.get(LockingStrategy.OPTIMISTIC)),
+                String.format("%.1f", goodput.get(LockingStrategy.PESSIMISTIC)),
+                String.format("%.1f", goodput.get(LockingStrategy.ATOMIC)), String.format("%.1f", adaptive));
+
+        for (LockingStrategy fixed : LockingStrategy.values()) {
+            assertTrue(adaptive > goodput.get(fixed),
+                    "Adaptive should beat fixed " + fixed + ": " + adaptive + " vs " + goodput.get(fixed));
+        }
+    }
+
+    @Test
+    void testHotItemEscalatesAndColdItemsDoNot() throws Exception {
+        List<Long> itemIds = fixtures.createItems("Benchmark item", ITEMS, INITIAL_QUANTITY);
+        new ContentionHarness(THREADS, OPERATIONS, 1).run("adaptive-escalation", index -> reduce(itemIds));
+
+        assertEquals(LockingStrategy.ATOMIC,
+                strategySelector.currentStrategy(AdaptiveStrategySelector.Resource.INVENTORY_ITEM, itemIds.get(0)));
+        for (Long coldId : itemIds.subList(1, itemIds.size())) {
+            assertNotEquals(LockingStrategy.ATOMIC,
+                    strategySelector.currentStrategy(AdaptiveStrategySelector.Resource.INVENTORY_ITEM, coldId));
+        }
+    }
+
+    /**
+     * Runs the workload on fresh items so every run starts from the initial strategy.
+     * A null strategy means adaptive selection.
+     */
+    private ContentionHarness.Result runWorkload(LockingStrategy strategy) throws Exception {
+        List<Long> itemIds = fixtures.createItems("Benchmark item", ITEMS, INITIAL_QUANTITY);
+        strategySelector.pin(strategy);
+
+        ContentionHarness.Result result = new ContentionHarness(THREADS, OPERATIONS, 1)
+                .run(strategy == null ? "ADAPTIVE" : strategy.name(), index -> reduce(itemIds));
+
+        int remaining = inventoryItemRepository.findAllById(itemIds).stream().mapToInt(InventoryItem::getQuantity).sum();
+        assertEquals(ITEMS * INITIAL_QUANTITY - result.successes().size(), remaining,
+                "Final stock does not match successful reductions");
+        return result;
+    }
+
+    private Object reduce(List<Long> itemIds) throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long itemId = random.nextDouble() < HOT_ITEM_SHARE
+                ? itemIds.get(0)
+                : itemIds.get(1 + random.nextInt(itemIds.size() - 1));
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return inventoryService.reduceQuantity(itemId, 1).getQuantity();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= OPTIMISTIC_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
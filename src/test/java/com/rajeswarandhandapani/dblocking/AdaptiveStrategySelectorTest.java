@@ -0,0 +1,71 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.service.AdaptiveStrategySelector;
+import com.rajeswarandhandapani.dblocking.service.AdaptiveStrategySelector.Resource;
+import com.rajeswarandhandapani.dblocking.service.LockingStrategy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Selector bookkeeping without a database: key eviction and the per-strategy gauges.
+ */
+@SpringBootTest(classes = {AdaptiveStrategySelector.class, SimpleMeterRegistry.class}, properties = {
+        "locking.adaptive.max-keys=" + AdaptiveStrategySelectorTest.MAX_KEYS,
+        "locking.adaptive.min-samples-between-switches=5"
+})
+public class AdaptiveStrategySelectorTest {
+
+    static final int MAX_KEYS = 100;
+
+    @Autowired
+    private AdaptiveStrategySelector selector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testIdleKeysAreEvictedAndGaugesTrackLiveKeys() {
+        Long hotId = 0L;
+        for (int i = 0; i < 20; i++) {
+            observe(Resource.INVENTORY_ITEM, hotId, true);
+        }
+        assertEquals(LockingStrategy.ATOMIC, selector.currentStrategy(Resource.INVENTORY_ITEM, hotId));
+
+        // Touch many cold keys, revisiting the hot key so it stays recently used
+        for (long id = 1; id <= 5 * MAX_KEYS; id++) {
+            observe(Resource.INVENTORY_ITEM, id, false);
+            if (id % 20 == 0) {
+                observe(Resource.INVENTORY_ITEM, hotId, true);
+            }
+        }
+
+        long trackedKeys = meterRegistry.find("locking.adaptive.keys").gauges().stream()
+                .mapToLong(gauge -> (long) gauge.value())
+                .sum();
+        assertTrue(trackedKeys <= MAX_KEYS, "Tracked keys should stay bounded: " + trackedKeys);
+        assertEquals(1, keyGauge(Resource.INVENTORY_ITEM, LockingStrategy.ATOMIC));
+        assertEquals(LockingStrategy.ATOMIC, selector.currentStrategy(Resource.INVENTORY_ITEM, hotId));
+    }
+
+    private void observe(Resource resource, Long id, boolean contended) {
+        try (AdaptiveStrategySelector.Observation observation = selector.begin(resource, id)) {
+            if (contended) {
+                observation.conflict();
+            }
+        }
+    }
+
+    private long keyGauge(Resource resource, LockingStrategy strategy) {
+        Gauge gauge = meterRegistry.get("locking.adaptive.keys")
+                .tag("resource", resource.name())
+                .tag("strategy", strategy.name())
+                .gauge();
+        return (long) gauge.value();
+    }
+}
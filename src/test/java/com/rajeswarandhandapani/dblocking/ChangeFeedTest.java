@@ -0,0 +1,205 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveChangeEventRepository;
+import com.rajeswarandhandapani.dblocking.service.ChangeFeedService;
+import com.rajeswarandhandapani.dblocking.service.InventoryService;
+import com.rajeswarandhandapani.dblocking.service.OutboxWriter;
+import com.rajeswarandhandapani.dblocking.service.ReactiveTicketService;
+import com.rajeswarandhandapani.dblocking.service.TicketService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "test.db.name=change_feed",
+        "change-feed.poll-interval=PT0.1S"
+})
+@TestPropertySource(locations = "classpath:isolated-database.properties")
+@Import(TestFixtures.class)
+public class ChangeFeedTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private ReactiveTicketService reactiveTicketService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @MockitoSpyBean
+    private ReactiveChangeEventRepository reactiveChangeEventRepository;
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testSuccessfulChangesAppendEventsInOrder() throws Exception {
+        long cursor = reactiveChangeEventRepository.findLatestId().block();
+        Long ticketId = fixtures.createTicket("Feed seat").getId();
+        Long itemId = fixtures.createItem("Feed item", 10).getId();
+
+        ticketService.reserveTicket(ticketId, "alice");
+        ticketService.confirmReservation(ticketId, "alice");
+        ticketService.cancelBooking(ticketId);
+        reactiveTicketService.bookTicket(ticketId).block();
+        inventoryService.reduceQuantity(itemId, 3);
+
+        List<ChangeEvent> events = reactiveChangeEventRepository.findAfter(cursor, 100).collectList().block();
+        assertEquals(List.of(ChangeEvent.EventType.RESERVED, ChangeEvent.EventType.BOOKED, ChangeEvent.EventType.CANCELLED,
+                        ChangeEvent.EventType.BOOKED, ChangeEvent.EventType.QUANTITY_REDUCED),
+                events.stream().map(ChangeEvent::getEventType).toList());
+        assertEquals(ticketId, events.get(0).getAggregateId());
+        assertEquals(itemId, events.get(4).getAggregateId());
+        assertEquals(7, events.get(4).getQuantity());
+    }
+
+    @Test
+    void testStreamDoesNotSkipEventOfTransactionThatCommitsLate() throws Exception {
+        long cursor = reactiveChangeEventRepository.findLatestId().block();
+        CompletableFuture<List<ChangeEvent>> streamed = changeFeedService.streamAfter(cursor)
+                .take(2)
+                .collectList()
+                .toFuture();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+
+        // The first transaction writes its event, then stalls before committing
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.append(ChangeEvent.forTicket(1L, ChangeEvent.EventType.RESERVED, false));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    firstWritten.countDown();
+                    try {
+                        releaseFirst.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }));
+        assertTrue(firstWritten.await(5, TimeUnit.SECONDS));
+
+        // The second transaction starts later and tries to commit first
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status ->
+                outboxWriter.append(ChangeEvent.forTicket(2L, ChangeEvent.EventType.RESERVED, false))));
+        Thread.sleep(300);
+        assertFalse(second.isDone(), "The later transaction must wait for the earlier one's events to commit");
+        assertEquals(0, reactiveChangeEventRepository.findAfter(cursor, 100).count().block());
+
+        releaseFirst.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        List<ChangeEvent> events = streamed.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of(1L, 2L), events.stream().map(ChangeEvent::getAggregateId).toList());
+        assertTrue(events.get(0).getId() < events.get(1).getId());
+    }
+
+    @Test
+    void testFailedChangeAppendsNoEvent() {
+        long cursor = reactiveChangeEventRepository.findLatestId().block();
+        Long itemId = fixtures.createItem("Scarce item", 10).getId();
+
+        assertThrows(IllegalStateException.class, () -> inventoryService.reduceQuantity(itemId, 100));
+
+        assertEquals(0, reactiveChangeEventRepository.findAfter(cursor, 100).count().block());
+    }
+
+    @Test
+    void testStreamDeliversChangesAfterCursor() {
+        Long ticketId = fixtures.createTicket("Streamed seat").getId();
+        ticketService.reserveTicket(ticketId, "alice");
+        long cursor = WebClient.create("http://localhost:" + port).get()
+                .uri("/api/changes/cursor")
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Long>>() {})
+                .block()
+                .get("cursor");
+
+        ticketService.confirmReservation(ticketId, "alice");
+        ticketService.cancelBooking(ticketId);
+
+        List<ServerSentEvent<ChangeEvent>> received = WebClient.create("http://localhost:" + port).get()
+                .uri("/api/changes/stream?after={cursor}", cursor)
+                .retrieve()
+                .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<ChangeEvent>>() {})
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of("BOOKED", "CANCELLED"), received.stream().map(ServerSentEvent::event).toList());
+        assertTrue(Long.parseLong(received.get(0).id()) > cursor);
+        assertEquals(ticketId, received.get(1).data().getAggregateId());
+        assertFalse(received.get(1).data().getBooked());
+    }
+
+    @Test
+    void testSubscribersShareOnePollLoop() throws Exception {
+        int subscribers = 20;
+        long cursor = reactiveChangeEventRepository.findLatestId().block();
+        CountDownLatch delivered = new CountDownLatch(subscribers);
+        List<Disposable> streams = new ArrayList<>();
+        for (int i = 0; i < subscribers; i++) {
+            streams.add(changeFeedService.streamAfter(cursor).subscribe(event -> delivered.countDown()));
+        }
+
+        try {
+            // Let every subscriber catch up, then count table reads over ten poll intervals
+            Thread.sleep(500);
+            long readsBefore = findAfterCalls();
+            Thread.sleep(1000);
+            long reads = findAfterCalls() - readsBefore;
+            assertTrue(reads <= 15, subscribers + " idle subscribers read the table " + reads + " times in 10 poll intervals");
+
+            ticketService.reserveTicket(fixtures.createTicket("Shared seat").getId(), "alice");
+            assertTrue(delivered.await(5, TimeUnit.SECONDS), "Not every subscriber received the event");
+        } finally {
+            streams.forEach(Disposable::dispose);
+        }
+    }
+
+    private long findAfterCalls() {
+        return mockingDetails(reactiveChangeEventRepository).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("findAfter"))
+                .count();
+    }
+}
@@ -0,0 +1,108 @@
+package com.rajeswarandhandapani.dblocking;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Fires a fixed number of operations from many threads at once, with randomized
+ * start jitter, and records the full operation history so tests can verify
+ * invariants afterwards. Also reports throughput, so the same run doubles as a
+ * performance baseline for a locking strategy.
+ */
+public class ContentionHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentionHarness.class);
+
+    /**
+     * A single operation under test. Returns the value observed by the operation
+     * (e.g. the booked ticket ID or the quantity left after a decrement).
+     */
+    @FunctionalInterface
+    public interface Operation {
+        Object execute(int index) throws Exception;
+    }
+
+    public record OperationRecord(int index, String thread, long startNanos, long endNanos,
+                                  boolean success, Object result, Exception error) {
+    }
+
+    public record Result(String name, List<OperationRecord> history, long elapsedNanos) {
+
+        public List<OperationRecord> successes() {
+            return history.stream().filter(OperationRecord::success).toList();
+        }
+
+        public List<OperationRecord> failures() {
+            return history.stream().filter(r -> !r.success()).toList();
+        }
+
+        public double throughput() {
+            return history.size() / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+
+    private final int threads;
+    private final int operations;
+    private final int maxJitterMillis;
+
+    public ContentionHarness(int threads, int operations, int maxJitterMillis) {
+        this.threads = threads;
+        this.operations = operations;
+        this.maxJitterMillis = maxJitterMillis;
+    }
+
+    public Result run(String name, Operation operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch startGate = new CountDownLatch(1);
+        List<OperationRecord> history = Collections.synchronizedList(new ArrayList<>(operations));
+        List<Future<?>> futures = new ArrayList<>(operations);
+
+        for (int i = 0; i < operations; i++) {
+            final int index = i;
+            futures.add(executor.submit(() -> {
+                startGate.await();
+                if (maxJitterMillis > 0) {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(maxJitterMillis + 1));
+                }
+                long start = System.nanoTime();
+                try {
+                    Object result = operation.execute(index);
+                    history.add(new OperationRecord(index, Thread.currentThread().getName(),
+                            start, System.nanoTime(), true, result, null));
+                } catch (Exception e) {
+                    history.add(new OperationRecord(index, Thread.currentThread().getName(),
+                            start, System.nanoTime(), false, null, e));
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        long elapsed;
+        try {
+            startGate.countDown();
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Harness task failed", e.getCause());
+                }
+            }
+            elapsed = System.nanoTime() - start;
+        } finally {
+            // Also interrupts tasks still queued or running if a task failed or we were interrupted
+            executor.shutdownNow();
+        }
+
+        Result result = new Result(name, List.copyOf(history), elapsed);
+        logger.info("[{}] {} ops on {} threads: {} succeeded, {} failed in {} ms ({} ops/s)",
+                name, operations, threads, result.successes().size(), result.failures().size(),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), String.format("%.1f", result.throughput()));
+        return result;
+    }
+}
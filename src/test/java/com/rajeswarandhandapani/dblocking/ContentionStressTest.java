@@ -0,0 +1,225 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
+import com.rajeswarandhandapani.dblocking.repository.TicketRepository;
+import com.rajeswarandhandapani.dblocking.service.AdaptiveStrategySelector.Resource;
+import com.rajeswarandhandapani.dblocking.service.InventoryService;
+import com.rajeswarandhandapani.dblocking.service.LockingStrategy;
+import com.rajeswarandhandapani.dblocking.service.TicketService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests that drive InventoryService.reduceQuantity and TicketService.bookTicket
+ * through {@link ContentionHarness}, with each locking strategy pinned in turn, and
+ * verify the recorded history: no ticket is booked twice, stock never goes below zero
+ * and the final quantity matches the successful decrements. A short simulated delay
+ * keeps every operation inside its locked section long enough to overlap. The adaptive
+ * cases lower the switch dwell so keys change strategy while the run is in flight.
+ */
+@SpringBootTest(properties = {
+        "test.db.name=contention_stress",
+        "simulation.reduce-delay=PT0.002S",
+        "simulation.booking-delay=PT0.002S",
+        "locking.adaptive.min-samples-between-switches=5",
+        "spring.main.allow-bean-definition-overriding=true"
+})
+@TestPropertySource(locations = "classpath:isolated-database.properties")
+@Import({PinnedStrategySelector.Config.class, TestFixtures.class})
+public class ContentionStressTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 200;
+    private static final int MAX_JITTER_MILLIS = 5;
+    private static final int INITIAL_QUANTITY = 120;
+    private static final int TICKETS = 40;
+    private static final int ADAPTIVE_TICKETS = 8;
+    private static final int OPTIMISTIC_RETRIES = 10;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PinnedStrategySelector strategySelector;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicInteger conflicts = new AtomicInteger();
+
+    private final ContentionHarness harness = new ContentionHarness(THREADS, OPERATIONS, MAX_JITTER_MILLIS);
+
+    @AfterEach
+    void tearDown() {
+        strategySelector.pin(null);
+    }
+
+    @Test
+    void optimisticDecrementsNeverOversell() throws Exception {
+        strategySelector.pin(LockingStrategy.OPTIMISTIC);
+
+        verifyDecrements("optimistic-decrement", fixtures.createItem("Optimistic stress item", INITIAL_QUANTITY).getId());
+
+        assertTrue(conflicts.get() > 0, "No decrement hit a version conflict, so no retry path was exercised");
+    }
+
+    @Test
+    void pessimisticDecrementsNeverOversell() throws Exception {
+        strategySelector.pin(LockingStrategy.PESSIMISTIC);
+
+        verifyDecrements("pessimistic-decrement", fixtures.createItem("Pessimistic stress item", INITIAL_QUANTITY).getId());
+    }
+
+    @Test
+    void optimisticBookingsNeverDoubleBook() throws Exception {
+        strategySelector.pin(LockingStrategy.OPTIMISTIC);
+
+        verifyBookings("optimistic-booking", fixtures.createTickets("Stress seat", TICKETS));
+
+        assertTrue(conflicts.get() > 0, "No booking hit a version conflict, so no retry path was exercised");
+    }
+
+    @Test
+    void pessimisticBookingsNeverDoubleBook() throws Exception {
+        strategySelector.pin(LockingStrategy.PESSIMISTIC);
+
+        verifyBookings("pessimistic-booking", fixtures.createTickets("Stress seat", TICKETS));
+    }
+
+    @Test
+    void atomicDecrementsNeverOversell() throws Exception {
+        strategySelector.pin(LockingStrategy.ATOMIC);
+
+        verifyDecrements("atomic-decrement", fixtures.createItem("Atomic stress item", INITIAL_QUANTITY).getId());
+    }
+
+    @Test
+    void atomicBookingsNeverDoubleBook() throws Exception {
+        strategySelector.pin(LockingStrategy.ATOMIC);
+
+        verifyBookings("atomic-booking", fixtures.createTickets("Stress seat", TICKETS));
+    }
+
+    @Test
+    void adaptiveDecrementsNeverOversellAcrossSwitches() throws Exception {
+        double switchesBefore = switches(Resource.INVENTORY_ITEM);
+
+        verifyDecrements("adaptive-decrement", fixtures.createItem("Adaptive stress item", INITIAL_QUANTITY).getId());
+
+        assertTrue(switches(Resource.INVENTORY_ITEM) > switchesBefore, "No item switched strategy during the run");
+    }
+
+    @Test
+    void adaptiveBookingsNeverDoubleBookAcrossSwitches() throws Exception {
+        double switchesBefore = switches(Resource.TICKET);
+
+        // Few seats, so each one sees enough overlapping operations to switch mid-run
+        verifyBookings("adaptive-booking", fixtures.createTickets("Stress seat", ADAPTIVE_TICKETS));
+
+        assertTrue(switches(Resource.TICKET) > switchesBefore, "No ticket switched strategy during the run");
+    }
+
+    private void verifyDecrements(String name, Long itemId) throws InterruptedException {
+        ContentionHarness.Result result = harness.run(name, index ->
+                withRetries(() -> inventoryService.reduceQuantity(itemId, 1).getQuantity()));
+
+        assertOnlyExpectedFailures(result);
+        List<Object> remaining = result.successes().stream().map(ContentionHarness.OperationRecord::result).toList();
+        int finalQuantity = inventoryItemRepository.findById(itemId).orElseThrow().getQuantity();
+
+        // Every successful decrement must have observed a distinct quantity, otherwise two
+        // of them were applied on top of the same state and one update was lost.
+        assertEquals(remaining.size(), new HashSet<>(remaining).size(), "Lost update detected in history");
+        assertTrue(remaining.stream().allMatch(q -> (Integer) q >= 0), "Stock went below zero");
+        assertTrue(finalQuantity >= 0, "Final stock is negative: " + finalQuantity);
+        assertEquals(INITIAL_QUANTITY - remaining.size(), finalQuantity,
+                "Final quantity does not match initial quantity minus successful decrements");
+
+        // Linearizability: a decrement that finished before another one started must have
+        // taken effect first, so it observed a strictly higher remaining quantity.
+        List<ContentionHarness.OperationRecord> successes = result.successes();
+        for (ContentionHarness.OperationRecord earlier : successes) {
+            for (ContentionHarness.OperationRecord later : successes) {
+                if (earlier.endNanos() < later.startNanos()) {
+                    assertTrue((Integer) earlier.result() > (Integer) later.result(),
+                            "Real-time order violated: operation " + earlier.index() + " left " + earlier.result()
+                                    + " and finished before operation " + later.index() + " started, which left " + later.result());
+                }
+            }
+        }
+    }
+
+    private void verifyBookings(String name, List<Long> ticketIds) throws InterruptedException {
+        ContentionHarness.Result result = harness.run(name, index -> {
+            Long ticketId = ticketIds.get(ThreadLocalRandom.current().nextInt(ticketIds.size()));
+            return withRetries(() -> ticketService.bookTicket(ticketId).getId());
+        });
+
+        assertOnlyExpectedFailures(result);
+        List<Object> bookedIds = result.successes().stream().map(ContentionHarness.OperationRecord::result).toList();
+        assertEquals(bookedIds.size(), new HashSet<>(bookedIds).size(), "A ticket was booked more than once");
+
+        Set<Long> bookedInDb = ticketRepository.findAllById(ticketIds).stream()
+                .filter(Ticket::isBooked)
+                .map(Ticket::getId)
+                .collect(Collectors.toSet());
+        assertEquals(new HashSet<>(bookedIds), bookedInDb, "Booked tickets in the database differ from the history");
+    }
+
+    // Retry optimistic conflicts the way a client would; other failures end the operation
+    private Object withRetries(Callable<Object> operation) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.call();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.incrementAndGet();
+                if (attempt >= OPTIMISTIC_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private double switches(Resource resource) {
+        return meterRegistry.find("locking.adaptive.switches").tag("resource", resource.name()).counters().stream()
+                .mapToDouble(Counter::count)
+                .sum();
+    }
+
+    // Sold out, already booked or out of optimistic retries; anything else is a bug
+    private void assertOnlyExpectedFailures(ContentionHarness.Result result) {
+        for (ContentionHarness.OperationRecord failure : result.failures()) {
+            assertTrue(failure.error() instanceof IllegalStateException
+                            || failure.error() instanceof OptimisticLockingFailureException,
+                    "Unexpected failure in " + result.name() + ": " + failure.error());
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.rajeswarandhandapani.dblocking;
 
 import com.rajeswarandhandapani.dblocking.model.InventoryItem;
 import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
+import com.rajeswarandhandapani.dblocking.service.InventoryService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -12,11 +13,14 @@ import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 
 import org.slf4j.Logger;
@@ -31,6 +35,9 @@ public class OptimisticLockingTest {
     @Autowired
     private PlatformTransactionManager transactionManager;
 
+    @Autowired
+    private InventoryService inventoryService;
+
     private static final Logger logger = LoggerFactory.getLogger(OptimisticLockingTest.class);
 
     @Test
@@ -99,4 +106,39 @@ public class OptimisticLockingTest {
         assertTrue(exception1 instanceof OptimisticLockingFailureException,
                 "First transaction should fail due to optimistic locking. Got: " + exception1);
     }
+
+    @Test
+    void testAvailabilityReadNeverSeesUncommittedQuantity() throws Exception {
+        var newItem = new InventoryItem();
+        newItem.setName("Lamp");
+        newItem.setQuantity(10);
+        Long itemId = inventoryItemRepository.saveAndFlush(newItem).getId();
+
+        // Flush a decrement and keep its transaction open until the read is done, then roll back
+        CountDownLatch flushed = new CountDownLatch(1);
+        CountDownLatch readDone = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            InventoryItem item = inventoryItemRepository.findById(itemId).orElseThrow();
+            item.setQuantity(9);
+            inventoryItemRepository.saveAndFlush(item);
+            flushed.countDown();
+            try {
+                readDone.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            status.setRollbackOnly();
+        }));
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+
+        try {
+            assertEquals(10, inventoryService.getItemById(itemId).orElseThrow().getQuantity());
+            assertEquals(10, inventoryService.getAllItems().stream()
+                    .filter(item -> item.getId().equals(itemId))
+                    .findFirst().orElseThrow().getQuantity());
+        } finally {
+            readDone.countDown();
+            writer.get(5, TimeUnit.SECONDS);
+        }
+    }
 }
@@ -0,0 +1,122 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
+import com.rajeswarandhandapani.dblocking.service.OutboxWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures how much the outbox lengthens a row lock. Every writer takes a pessimistic
+ * lock on an item, decrements it and commits, either with or without appending a change
+ * event. A quarter of the writes hit one hot item, the rest go to cold items, so with
+ * the outbox on, the hot item's lock holder also queues on the change_event_sequence row
+ * behind the cold writers. Lock hold is the time from acquiring the row lock to the end
+ * of commit.
+ */
+@SpringBootTest(properties = {
+        "test.db.name=outbox_lock_hold",
+        "test.db.options=;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false"
+})
+@TestPropertySource(locations = "classpath:isolated-database.properties")
+@Import(TestFixtures.class)
+public class OutboxLockHoldBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = 2000;
+    private static final int COLD_ITEMS = 50;
+    private static final double HOT_ITEM_SHARE = 0.25;
+    private static final int INITIAL_QUANTITY = 100_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxLockHoldBenchmarkTest.class);
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Tag("benchmark")
+    void testOutboxAddsLittleToHotRowLockHold() throws Exception {
+        // Warm up the JIT and connection pool on both paths
+        measureHotLockHold(true);
+        measureHotLockHold(false);
+
+        List<Long> without = new ArrayList<>();
+        List<Long> with = new ArrayList<>();
+        for (int round = 0; round < 3; round++) {
+            without.addAll(measureHotLockHold(false));
+            with.addAll(measureHotLockHold(true));
+        }
+
+        double withoutMedian = percentileMillis(without, 0.5);
+        double withMedian = percentileMillis(with, 0.5);
+        logger.info("Hot row lock hold (ms): without outbox p50 {} p95 {}, with outbox p50 {} p95 {}",
+                String.format("%.3f", withoutMedian), String.format("%.3f", percentileMillis(without, 0.95)),
+                String.format("%.3f", withMedian), String.format("%.3f", percentileMillis(with, 0.95)));
+
+        assertTrue(withMedian - withoutMedian < 1.0,
+                "Outbox adds " + (withMedian - withoutMedian) + " ms to the median hot row lock hold");
+    }
+
+    /**
+     * Runs the mixed workload and returns the hot item's lock hold times in nanoseconds.
+     */
+    private List<Long> measureHotLockHold(boolean appendEvents) throws Exception {
+        Long hotId = fixtures.createItem("Hot item", INITIAL_QUANTITY).getId();
+        List<Long> coldIds = fixtures.createItems("Cold item", COLD_ITEMS, INITIAL_QUANTITY);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        List<Long> hotHolds = Collections.synchronizedList(new ArrayList<>());
+
+        new ContentionHarness(THREADS, OPERATIONS, 1).run(appendEvents ? "with-outbox" : "without-outbox", index -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            boolean hot = random.nextDouble() < HOT_ITEM_SHARE;
+            Long itemId = hot ? hotId : coldIds.get(random.nextInt(coldIds.size()));
+            long[] lockedAt = new long[1];
+
+            transactionTemplate.executeWithoutResult(status -> {
+                InventoryItem item = inventoryItemRepository.findByIdWithLock(itemId).orElseThrow();
+                lockedAt[0] = System.nanoTime();
+                item.setQuantity(item.getQuantity() - 1);
+                inventoryItemRepository.save(item);
+                if (appendEvents) {
+                    outboxWriter.append(ChangeEvent.forInventoryItem(itemId, ChangeEvent.EventType.QUANTITY_REDUCED, item.getQuantity()));
+                }
+            });
+            if (hot) {
+                hotHolds.add(System.nanoTime() - lockedAt[0]);
+            }
+            return null;
+        });
+        return hotHolds;
+    }
+
+    private static double percentileMillis(List<Long> nanos, double percentile) {
+        List<Long> sorted = nanos.stream().sorted().toList();
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.floor(percentile * sorted.size()))) / 1_000_000.0;
+    }
+}
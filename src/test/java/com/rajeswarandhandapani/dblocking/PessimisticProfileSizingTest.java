@@ -0,0 +1,40 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The perf-pessimistic profile must never admit more concurrent requests than the
+ * JDBC pool can serve, or lock waiters end up queueing on Hikari instead of the row.
+ */
+@SpringBootTest(properties = {
+        "test.db.name=pessimistic_sizing",
+        "test.db.options=;LOCK_TIMEOUT=5000"
+})
+@TestPropertySource(locations = "classpath:isolated-database.properties")
+@ActiveProfiles("perf-pessimistic")
+public class PessimisticProfileSizingTest {
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Autowired
+    private ServerProperties serverProperties;
+
+    @Test
+    void testPoolCoversEveryRequestThread() {
+        int requestThreads = serverProperties.getTomcat().getThreads().getMax();
+
+        assertEquals(10, requestThreads);
+        assertTrue(dataSource.getMaximumPoolSize() > requestThreads,
+                "Pool of " + dataSource.getMaximumPoolSize() + " cannot serve " + requestThreads + " request threads");
+        assertEquals(requestThreads, dataSource.getMinimumIdle());
+    }
+}
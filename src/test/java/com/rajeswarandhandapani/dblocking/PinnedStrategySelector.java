@@ -0,0 +1,42 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.service.AdaptiveStrategySelector;
+import com.rajeswarandhandapani.dblocking.service.LockingStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Test-only selector that can pin every key to one strategy, so a test can drive the
+ * real services with a fixed strategy. Replaces the application's selector bean when
+ * imported together with spring.main.allow-bean-definition-overriding=true.
+ */
+public class PinnedStrategySelector extends AdaptiveStrategySelector {
+
+    private volatile LockingStrategy pinnedStrategy;
+
+    public PinnedStrategySelector(MeterRegistry meterRegistry) {
+        super(meterRegistry);
+    }
+
+    /**
+     * Pin every key to the given strategy; null restores adaptive selection.
+     */
+    public void pin(LockingStrategy strategy) {
+        this.pinnedStrategy = strategy;
+    }
+
+    @Override
+    protected LockingStrategy fixedStrategy(Resource resource) {
+        return pinnedStrategy;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        public PinnedStrategySelector adaptiveStrategySelector(MeterRegistry meterRegistry) {
+            return new PinnedStrategySelector(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
+import com.rajeswarandhandapani.dblocking.repository.TicketRepository;
+import com.rajeswarandhandapani.dblocking.service.ReactiveInventoryService;
+import com.rajeswarandhandapani.dblocking.service.ReactiveTicketService;
+import com.rajeswarandhandapani.dblocking.service.TicketService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Exercises the non-blocking API and compares it with the MVC endpoints under a
+ * small request-thread budget while bookings wait on a row lock.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "test.db.name=reactive_api",
+        "test.db.options=;LOCK_TIMEOUT=10000",
+        "simulation.booking-delay=PT0S",
+        "server.tomcat.threads.max=" + ReactiveApiTest.REQUEST_THREADS,
+        "server.tomcat.threads.min-spare=" + ReactiveApiTest.REQUEST_THREADS
+})
+@TestPropertySource(locations = "classpath:isolated-database.properties")
+@Import(TestFixtures.class)
+public class ReactiveApiTest {
+
+    static final int REQUEST_THREADS = 4;
+    private static final int LOCKED_BOOKINGS = 2 * REQUEST_THREADS;
+    private static final long LOCK_HOLD_MILLIS = 1500;
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveApiTest.class);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InventoryItemRepository inventoryItemRepository;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReactiveInventoryService reactiveInventoryService;
+
+    @Autowired
+    private ReactiveTicketService reactiveTicketService;
+
+    @Test
+    void testConcurrentReactiveBookingsBookOnce() throws Exception {
+        Long ticketId = fixtures.createTicket("Reactive seat").getId();
+
+        ContentionHarness.Result result = new ContentionHarness(16, 100, 5)
+                .run("reactive-booking", index -> reactiveTicketService.bookTicket(ticketId).block().getId());
+
+        assertEquals(1, result.successes().size(), "Exactly one booking should succeed");
+        assertTrue(result.failures().stream().allMatch(r -> r.error() instanceof IllegalStateException));
+        assertTrue(ticketRepository.findById(ticketId).orElseThrow().isBooked());
+    }
+
+    @Test
+    void testReactiveBookingRespectsReservation() {
+        Long ticketId = fixtures.createTicket("Reserved seat").getId();
+        ticketService.reserveTicket(ticketId, "alice");
+
+        assertThrows(IllegalStateException.class, () -> reactiveTicketService.bookTicket(ticketId).block());
+        assertFalse(ticketRepository.findById(ticketId).orElseThrow().isBooked());
+    }
+
+    @Test
+    void testReactiveBookingChecksLeaseWhenSubscribed() throws Exception {
+        Long ticketId = fixtures.createTicket("Lapsing seat").getId();
+        ticketService.reserveTicket(ticketId, "alice");
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        ticket.setReservedUntil(Instant.now().plusMillis(300));
+        ticketRepository.saveAndFlush(ticket);
+
+        // Assembled while the lease is live, subscribed after it lapsed
+        Mono<Ticket> booking = reactiveTicketService.bookTicket(ticketId);
+        Thread.sleep(500);
+
+        assertTrue(booking.block().isBooked());
+    }
+
+    @Test
+    void testConcurrentReactiveReduceDetectsConflict() {
+        Long itemId = fixtures.createItem("Reactive item", 10).getId();
+
+        List<Throwable> errors = new ArrayList<>();
+        Flux.range(0, 2)
+                .flatMap(i -> reactiveInventoryService.reduceQuantity(itemId, 1)
+                        .doOnError(errors::add)
+                        .onErrorResume(e -> reactiveInventoryService.getItemById(itemId)))
+                .blockLast();
+
+        assertEquals(1, errors.size(), "One of the two concurrent reductions should conflict");
+        assertInstanceOf(OptimisticLockingFailureException.class, errors.get(0));
+        InventoryItem item = inventoryItemRepository.findById(itemId).orElseThrow();
+        assertEquals(9, item.getQuantity());
+        assertEquals(1, item.getVersion());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void testReactiveBookingsWaitingOnRowLockLeaveRequestThreadsFree() throws Exception {
+        long mvcProbeMillis = probeWhileBookingsWaitOnLock("/api/tickets/%d/book");
+        long reactiveProbeMillis = probeWhileBookingsWaitOnLock("/api/reactive/tickets/%d/book");
+
+        logger.info("Probe latency while {} bookings wait on a row lock held for {} ms, {} request threads: MVC {} ms, reactive {} ms",
+                LOCKED_BOOKINGS, LOCK_HOLD_MILLIS, REQUEST_THREADS, mvcProbeMillis, reactiveProbeMillis);
+        assertTrue(reactiveProbeMillis < mvcProbeMillis,
+                "Reactive bookings should not hold request threads while waiting on the lock. MVC: "
+                        + mvcProbeMillis + " ms, reactive: " + reactiveProbeMillis + " ms");
+    }
+
+    /**
+     * Holds SELECT ... FOR UPDATE on a batch of tickets in a JPA transaction, fires
+     * one booking request per locked ticket (more than there are request threads)
+     * and times an unrelated read issued while those bookings are waiting.
+     */
+    private long probeWhileBookingsWaitOnLock(String bookPathTemplate) throws Exception {
+        List<Long> ticketIds = fixtures.createTickets("Locked seat", LOCKED_BOOKINGS);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread lockHolder = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            ticketIds.forEach(id -> ticketRepository.findByIdWithLock(id).orElseThrow());
+            locked.countDown();
+            try {
+                Thread.sleep(LOCK_HOLD_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        lockHolder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        WebClient client = WebClient.create("http://localhost:" + port);
+        CompletableFuture<List<Integer>> bookings = Flux.fromIterable(ticketIds)
+                .flatMap(id -> client.method(HttpMethod.POST)
+                        .uri(String.format(bookPathTemplate, id))
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value())),
+                        LOCKED_BOOKINGS)
+                .collectList()
+                .toFuture();
+        // Let the bookings reach the row lock before probing
+        Thread.sleep(200);
+
+        long start = System.nanoTime();
+        client.get().uri("/api/tickets/{id}", ticketIds.get(0)).retrieve().toBodilessEntity().block();
+        long probeMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        List<Integer> statuses = bookings.get(10, TimeUnit.SECONDS);
+        lockHolder.join();
+        assertTrue(statuses.stream().allMatch(status -> status == 200), "All bookings should succeed once the lock is released: " + statuses);
+        assertTrue(ticketRepository.findAllById(ticketIds).stream().allMatch(Ticket::isBooked));
+        return probeMillis;
+    }
+}
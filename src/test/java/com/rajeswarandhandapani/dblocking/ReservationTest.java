@@ -0,0 +1,177 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.ChangeEvent;
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import com.rajeswarandhandapani.dblocking.repository.ReactiveChangeEventRepository;
+import com.rajeswarandhandapani.dblocking.repository.TicketRepository;
+import com.rajeswarandhandapani.dblocking.service.LockingStrategy;
+import com.rajeswarandhandapani.dblocking.service.ReservationSweeper;
+import com.rajeswarandhandapani.dblocking.service.TicketService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "simulation.booking-delay=PT0S",
+        "spring.main.allow-bean-definition-overriding=true"
+})
+@Import({PinnedStrategySelector.Config.class, TestFixtures.class})
+public class ReservationTest {
+
+    @Autowired
+    private TicketService ticketService;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ReservationSweeper reservationSweeper;
+
+    @Autowired
+    private ReactiveChangeEventRepository reactiveChangeEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PinnedStrategySelector strategySelector;
+
+    @AfterEach
+    void unpin() {
+        strategySelector.pin(null);
+    }
+
+    @Test
+    void testReservationIsExclusiveAndConfirmsIntoBooking() {
+        Long ticketId = fixtures.createTicket("Lease seat").getId();
+
+        Ticket reserved = ticketService.reserveTicket(ticketId, "alice");
+        assertEquals("alice", reserved.getReservedBy());
+        assertFalse(reserved.isBooked());
+
+        assertThrows(IllegalStateException.class, () -> ticketService.reserveTicket(ticketId, "bob"));
+        assertThrows(IllegalStateException.class, () -> ticketService.confirmReservation(ticketId, "bob"));
+
+        Ticket booked = ticketService.confirmReservation(ticketId, "alice");
+        assertTrue(booked.isBooked());
+        assertNull(booked.getReservedBy());
+        assertNull(booked.getReservedUntil());
+    }
+
+    @Test
+    void testExpiredReservationIsReleasedBySweeper() {
+        Long ticketId = fixtures.createTicket("Expiring seat").getId();
+        ticketService.reserveTicket(ticketId, "alice");
+
+        Ticket ticket = ticketRepository.findById(ticketId).orElseThrow();
+        ticket.setReservedUntil(Instant.now().minusSeconds(60));
+        ticketRepository.saveAndFlush(ticket);
+
+        assertThrows(IllegalStateException.class, () -> ticketService.confirmReservation(ticketId, "alice"));
+
+        reservationSweeper.releaseExpiredReservations();
+
+        Ticket released = ticketRepository.findById(ticketId).orElseThrow();
+        assertNull(released.getReservedBy());
+        assertNull(released.getReservedUntil());
+        assertEquals("bob", ticketService.reserveTicket(ticketId, "bob").getReservedBy());
+    }
+
+    @Test
+    void testLeaseRenewedDuringSweepIsNotReleased() throws Exception {
+        Long ticketId = fixtures.createTicket("Renewed seat").getId();
+        ticketService.reserveTicket(ticketId, "alice");
+        Ticket expired = ticketRepository.findById(ticketId).orElseThrow();
+        expired.setReservedUntil(Instant.now().minusSeconds(60));
+        ticketRepository.saveAndFlush(expired);
+        long cursor = reactiveChangeEventRepository.findLatestId().block();
+
+        // Renew the lease under a row lock that is still held when the sweep starts
+        CountDownLatch locked = new CountDownLatch(1);
+        CompletableFuture<Void> renewal = CompletableFuture.runAsync(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Ticket ticket = ticketRepository.findByIdWithLock(ticketId).orElseThrow();
+            ticket.setReservedBy("bob");
+            ticket.setReservedUntil(Instant.now().plus(Duration.ofMinutes(5)));
+            locked.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        ticketService.releaseExpiredReservations(100);
+        renewal.get(5, TimeUnit.SECONDS);
+
+        assertEquals("bob", ticketRepository.findById(ticketId).orElseThrow().getReservedBy());
+        assertTrue(reactiveChangeEventRepository.findAfter(cursor, 1000).toStream()
+                .noneMatch(event -> event.getAggregateId().equals(ticketId) && event.getEventType() == ChangeEvent.EventType.RELEASED));
+    }
+
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void testBookingAfterLeaseExpiryIsNotReleasedBySweeper(LockingStrategy strategy) {
+        Long ticketId = fixtures.createTicket("Lapsed seat " + strategy).getId();
+        ticketService.reserveTicket(ticketId, "alice");
+        Ticket expired = ticketRepository.findById(ticketId).orElseThrow();
+        expired.setReservedUntil(Instant.now().minusSeconds(60));
+        ticketRepository.saveAndFlush(expired);
+        long cursor = reactiveChangeEventRepository.findLatestId().block();
+
+        // The lease lapsed but has not been swept yet, so anyone may book the seat
+        strategySelector.pin(strategy);
+        Ticket booked = assertDoesNotThrow(() -> ticketService.bookTicket(ticketId));
+        assertTrue(booked.isBooked());
+        assertNull(booked.getReservedBy());
+        assertNull(booked.getReservedUntil());
+
+        reservationSweeper.releaseExpiredReservations();
+
+        assertTrue(ticketRepository.findById(ticketId).orElseThrow().isBooked());
+        assertTrue(reactiveChangeEventRepository.findAfter(cursor, 1000).toStream()
+                .noneMatch(event -> event.getAggregateId().equals(ticketId) && event.getEventType() == ChangeEvent.EventType.RELEASED));
+    }
+
+    @Test
+    void testCancellingUnbookedTicketKeepsLease() {
+        Long ticketId = fixtures.createTicket("Held seat").getId();
+        ticketService.reserveTicket(ticketId, "alice");
+
+        assertThrows(IllegalStateException.class, () -> ticketService.cancelBooking(ticketId));
+
+        Ticket stillReserved = ticketRepository.findById(ticketId).orElseThrow();
+        assertEquals("alice", stillReserved.getReservedBy());
+        assertNotNull(stillReserved.getReservedUntil());
+        assertTrue(ticketService.confirmReservation(ticketId, "alice").isBooked());
+    }
+
+    @Test
+    void testConcurrentReservationsGrantSingleLease() throws Exception {
+        Long ticketId = fixtures.createTicket("Contended seat").getId();
+
+        ContentionHarness.Result result = new ContentionHarness(16, 100, 5)
+                .run("lease-reserve", index -> ticketService.reserveTicket(ticketId, "holder-" + index).getReservedBy());
+
+        assertEquals(1, result.successes().size(), "Exactly one holder should get the lease");
+        assertEquals(result.successes().get(0).result(),
+                ticketRepository.findById(ticketId).orElseThrow().getReservedBy());
+    }
+}
@@ -0,0 +1,56 @@
+package com.rajeswarandhandapani.dblocking;
+
+import com.rajeswarandhandapani.dblocking.model.InventoryItem;
+import com.rajeswarandhandapani.dblocking.model.Ticket;
+import com.rajeswarandhandapani.dblocking.repository.InventoryItemRepository;
+import com.rajeswarandhandapani.dblocking.repository.TicketRepository;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the tickets and inventory items integration tests start from. Pull it into a
+ * test context with @Import(TestFixtures.class).
+ */
+@TestComponent
+public class TestFixtures {
+
+    private final TicketRepository ticketRepository;
+    private final InventoryItemRepository inventoryItemRepository;
+
+    public TestFixtures(TicketRepository ticketRepository, InventoryItemRepository inventoryItemRepository) {
+        this.ticketRepository = ticketRepository;
+        this.inventoryItemRepository = inventoryItemRepository;
+    }
+
+    public Ticket createTicket(String name) {
+        Ticket ticket = new Ticket();
+        ticket.setName(name);
+        ticket.setBooked(false);
+        return ticketRepository.saveAndFlush(ticket);
+    }
+
+    public List<Long> createTickets(String namePrefix, int count) {
+        List<Long> ticketIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ticketIds.add(createTicket(namePrefix + " " + i).getId());
+        }
+        return ticketIds;
+    }
+
+    public InventoryItem createItem(String name, int quantity) {
+        InventoryItem item = new InventoryItem();
+        item.setName(name);
+        item.setQuantity(quantity);
+        return inventoryItemRepository.saveAndFlush(item);
+    }
+
+    public List<Long> createItems(String namePrefix, int count, int quantity) {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            itemIds.add(createItem(namePrefix + " " + i, quantity).getId());
+        }
+        return itemIds;
+    }
+}